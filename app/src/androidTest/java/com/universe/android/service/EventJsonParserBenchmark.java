@@ -0,0 +1,161 @@
+package com.universe.android.service;
+
+import android.os.Debug;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.universe.android.model.Event;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the streaming event parser with the previous JSONArray + per-event SimpleDateFormat
+ * parser on a synthetic 1,000-event catalog. Timings and GC counts are logged under the
+ * EventParserBenchmark tag:
+ *
+ *     adb logcat -s EventParserBenchmark
+ */
+@RunWith(AndroidJUnit4.class)
+public class EventJsonParserBenchmark {
+    private static final String TAG = "EventParserBenchmark";
+    private static final int CATALOG_SIZE = 1000;
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 20;
+
+    @Test
+    public void parsesCatalogLikeTreeParser() throws Exception {
+        byte[] catalog = buildCatalog(CATALOG_SIZE);
+
+        List<Event> streamed = EventJsonParser.parseEventList(catalog, "utf-8");
+        List<Event> tree = parseWithTree(catalog);
+
+        assertEquals(tree.size(), streamed.size());
+        for (int i = 0; i < tree.size(); i++) {
+            assertEquals(tree.get(i).getId(), streamed.get(i).getId());
+            assertEquals(tree.get(i).getTitle(), streamed.get(i).getTitle());
+            assertEquals(tree.get(i).getDate(), streamed.get(i).getDate());
+            assertEquals(tree.get(i).getTime(), streamed.get(i).getTime());
+            assertEquals(tree.get(i).getLocation(), streamed.get(i).getLocation());
+            assertEquals(tree.get(i).getPointsPrice(), streamed.get(i).getPointsPrice());
+            assertEquals(tree.get(i).getAvailableTickets(), streamed.get(i).getAvailableTickets());
+        }
+    }
+
+    @Test
+    public void benchmarkCatalogParse() throws Exception {
+        byte[] catalog = buildCatalog(CATALOG_SIZE);
+
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            parseWithTree(catalog);
+            EventJsonParser.parseEventList(catalog, "utf-8");
+        }
+
+        long treeGcs = gcCount();
+        long treeStart = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            parseWithTree(catalog);
+        }
+        long treeNanos = (System.nanoTime() - treeStart) / MEASURED_RUNS;
+        treeGcs = gcCount() - treeGcs;
+
+        long streamGcs = gcCount();
+        long streamStart = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            EventJsonParser.parseEventList(catalog, "utf-8");
+        }
+        long streamNanos = (System.nanoTime() - streamStart) / MEASURED_RUNS;
+        streamGcs = gcCount() - streamGcs;
+
+        Log.i(TAG, String.format(Locale.US,
+                "%d events, %d runs: tree %.2f ms/run (%d GCs), streaming %.2f ms/run (%d GCs)",
+                CATALOG_SIZE, MEASURED_RUNS,
+                treeNanos / 1e6, treeGcs, streamNanos / 1e6, streamGcs));
+    }
+
+    private static long gcCount() {
+        String count = Debug.getRuntimeStat("art.gc.gc-count");
+        return count != null ? Long.parseLong(count) : -1;
+    }
+
+    private static byte[] buildCatalog(int size) throws JSONException {
+        JSONArray array = new JSONArray();
+        for (int i = 0; i < size; i++) {
+            JSONObject venue = new JSONObject();
+            venue.put("name", "Hall " + (i % 20));
+            venue.put("address", i + " University Avenue, Nottingham NG7 2RD");
+            venue.put("latitude", 52.9387 + i * 0.0001);
+            venue.put("longitude", -1.1954 - i * 0.0001);
+
+            JSONObject event = new JSONObject();
+            event.put("eventId", "event-" + i);
+            event.put("eventName", "Event number " + i);
+            event.put("description", "A description long enough to look like the real catalog entry " + i);
+            event.put("eventDateTime", String.format(Locale.US, "2025-%02d-%02dT%02d:%02d:00",
+                    i % 12 + 1, i % 28 + 1, i % 24, (i * 7) % 60));
+            event.put("venue", venue);
+            event.put("ticketPrice", 100 + i % 900);
+            event.put("availableTickets", i % 50);
+            event.put("organizer", "Society " + (i % 40));
+            array.put(event);
+        }
+        return array.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // The parser EventRepository used before streaming, kept here as the baseline
+    private static List<Event> parseWithTree(byte[] data) throws JSONException {
+        JSONArray array = new JSONArray(new String(data, StandardCharsets.UTF_8));
+        List<Event> events = new ArrayList<>();
+
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject eventJson = array.getJSONObject(i);
+
+            String dateTimeStr = eventJson.getString("eventDateTime");
+            SimpleDateFormat apiFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
+            SimpleDateFormat displayDateFormat = new SimpleDateFormat("MMMM d, yyyy", Locale.US);
+            SimpleDateFormat displayTimeFormat = new SimpleDateFormat("h:mm a", Locale.US);
+
+            String date;
+            String time = "";
+            try {
+                Date dateObj = apiFormat.parse(dateTimeStr);
+                date = displayDateFormat.format(dateObj);
+                time = displayTimeFormat.format(dateObj);
+            } catch (Exception e) {
+                date = dateTimeStr;
+            }
+
+            JSONObject venueJson = eventJson.has("venue") ? eventJson.getJSONObject("venue") : null;
+            Event event = new Event(
+                    eventJson.getString("eventId"),
+                    eventJson.getString("eventName"),
+                    eventJson.has("description") ? eventJson.getString("description") : "No description available",
+                    date, time,
+                    venueJson != null ? venueJson.getString("name") : "TBD",
+                    venueJson != null ? venueJson.getString("address") : "Address unavailable",
+                    venueJson != null && venueJson.has("latitude") ? venueJson.getDouble("latitude") : 0.0,
+                    venueJson != null && venueJson.has("longitude") ? venueJson.getDouble("longitude") : 0.0,
+                    eventJson.has("ticketPrice") ? (int) eventJson.getDouble("ticketPrice") : 500,
+                    eventJson.has("availableTickets") ? eventJson.getInt("availableTickets") : 10);
+
+            if (eventJson.has("organizer")) {
+                event.setOrganizer(eventJson.getString("organizer"));
+            }
+            events.add(event);
+        }
+        return events;
+    }
+}
@@ -13,8 +13,8 @@ import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.FirebaseFirestore;
 import com.universe.android.model.User;
+import com.universe.android.repository.UserRepository;
 
 public class AccountSetupActivity extends AppCompatActivity {
     private TextInputLayout usernameLayout;
@@ -26,7 +26,7 @@ public class AccountSetupActivity extends AppCompatActivity {
     private MaterialButton completeButton;
 
     private FirebaseAuth auth;
-    private FirebaseFirestore db;
+    private UserRepository userRepository;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -36,7 +36,7 @@ public class AccountSetupActivity extends AppCompatActivity {
 
         // Initialize Firebase
         auth = FirebaseAuth.getInstance();
-        db = FirebaseFirestore.getInstance();
+        userRepository = UserRepository.getInstance();
 
         // Initialize views
         MaterialToolbar toolbar = findViewById(R.id.toolbar);
@@ -113,8 +113,8 @@ public class AccountSetupActivity extends AppCompatActivity {
                 getSharedPreferences("universe", MODE_PRIVATE).getString("selected_org_id", "")
         );
 
-        db.collection("users").document(uid)
-                .set(newUser)
+        // Also claims the username in the usernames index
+        userRepository.createUserProfile(newUser)
                 .addOnSuccessListener(aVoid -> {
                     // Move to dashboard
                     Intent intent = new Intent(this, DashboardActivity.class);
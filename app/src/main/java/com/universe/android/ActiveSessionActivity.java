@@ -16,22 +16,23 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.google.android.gms.tasks.Task;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.button.MaterialButton;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.universe.android.adapter.ParticipantAdapter;
-import com.universe.android.manager.UserManager;
 import com.universe.android.model.Participant;
 import com.universe.android.repository.SessionRepository;
+import com.universe.android.repository.UserRepository;
 
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 import com.universe.android.util.ThemeManager;
 
 public class ActiveSessionActivity extends AppCompatActivity {
@@ -52,7 +53,7 @@ public class ActiveSessionActivity extends AppCompatActivity {
     private int duration;
     private int points;
     private FirebaseFirestore db;
-    private UserManager userManager;
+    private UserRepository userRepository;
     private SessionRepository sessionRepository;
 
     @Override
@@ -67,9 +68,9 @@ public class ActiveSessionActivity extends AppCompatActivity {
         EdgeToEdge.enable(this);
         setContentView(R.layout.activity_active_session);
 
-        // Initialize Firestore and UserManager
+        // Initialize Firestore and UserRepository
         db = FirebaseFirestore.getInstance();
-        userManager = UserManager.getInstance();
+        userRepository = UserRepository.getInstance();
         sessionRepository = SessionRepository.getInstance();
 
         // Initialize views
@@ -266,46 +267,24 @@ public class ActiveSessionActivity extends AppCompatActivity {
                 .setTitle("Session Complete!")
                 .setMessage("Congratulations! All participants earned " + points + " points!")
                 .setPositiveButton("OK", (dialog, which) -> {
-                    // Get all participants' actual usernames
-                    List<String> participants = participantAdapter.getParticipants()
-                            .stream()
-                            .map(participant -> {
-                                // Use the stored actual username if available, otherwise try to extract from name
-                                if (participant.getActualUsername() != null && !participant.getActualUsername().isEmpty()) {
-                                    return participant.getActualUsername();
-                                } else {
-                                    // Fallback to extract from display name if needed
-                                    String name = participant.getName();
-                                    return name.replace(" (Host)", "").trim();
-                                }
-                            })
-                            .collect(Collectors.toList());
-
                     // Award points and update stats for all participants
-                    updateParticipantStats(participants);
+                    updateParticipantStats(participantAdapter.getParticipants());
                 })
                 .setCancelable(false)
                 .show();
     }
 
-    private void updateParticipantStats(List<String> participants) {
+    private void updateParticipantStats(List<Participant> participants) {
         // Get the actual duration in minutes (needed for stats)
         int durationMinutes = duration < 60 ? 1 : duration / 60; // Minimum 1 minute
 
-        // Clean up participant names - trim spaces
-        List<String> cleanedParticipants = participants.stream()
-                .map(String::trim)  // remove any whitespace
-                .collect(Collectors.toList());
-
-        Log.d(TAG, "Participants (cleaned): " + cleanedParticipants.toString());
-
         // Check if this device is the host by looking at the intent extra
         boolean isHost = !getIntent().getBooleanExtra("isParticipant", true);
 
         if (isHost) {
             // Only host should award points to all participants
             Log.d(TAG, "Host is awarding points to all participants");
-            userManager.awardSessionPoints(cleanedParticipants, points)
+            awardPoints(participants)
                     .addOnSuccessListener(aVoid -> {
                         Log.d(TAG, "Successfully awarded points to all participants");
                         updateCurrentUserStats(durationMinutes);
@@ -324,10 +303,31 @@ public class ActiveSessionActivity extends AppCompatActivity {
         }
     }
 
+    private Task<Void> awardPoints(List<Participant> participants) {
+        Map<String, String> usernamesById = new LinkedHashMap<>();
+        List<String> usernames = new ArrayList<>();
+
+        for (Participant participant : participants) {
+            if (participant.getUserId() != null && !participant.getUserId().isEmpty()) {
+                usernamesById.put(participant.getUserId(), participant.getActualUsername());
+            } else if (participant.getActualUsername() != null && !participant.getActualUsername().isEmpty()) {
+                usernames.add(participant.getActualUsername().trim());
+            } else {
+                // Fallback to extract from display name if needed
+                usernames.add(participant.getName().replace(" (Host)", "").trim());
+            }
+        }
+
+        Log.d(TAG, "Awarding by userId: " + usernamesById.keySet() + ", by username: " + usernames);
+
+        // Older participant entries without a uid are resolved by username and merged with the rest
+        return userRepository.awardSessionPoints(sessionId, usernamesById, usernames, points);
+    }
+
     // Separate method for updating current user stats
     private void updateCurrentUserStats(int durationMinutes) {
         // Update stats for current user only
-        userManager.updateStatsAfterSession(this, 0, durationMinutes)
+        userRepository.updateStatsAfterSession(this, 0, durationMinutes)
                 .addOnSuccessListener(statsVoid -> {
                     Log.d(TAG, "Successfully updated user stats");
                     finish();
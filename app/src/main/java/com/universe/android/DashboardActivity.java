@@ -12,29 +12,31 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.button.MaterialButton;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.QueryDocumentSnapshot;
 import com.universe.android.adapter.EventPreviewAdapter;
 import com.universe.android.adapter.SessionHistoryAdapter;
-import com.universe.android.manager.UserManager;
-import com.universe.android.model.Event;
+import com.universe.android.model.EventPage;
 import com.universe.android.model.StudySession;
 import com.universe.android.model.User;
+import com.universe.android.repository.EventRepository;
+import com.universe.android.repository.SessionHistoryPager;
+import com.universe.android.repository.SessionRepository;
+import com.universe.android.repository.UserRepository;
 import com.universe.android.util.StatsHelper;
 import com.universe.android.util.ThemeManager;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 public class DashboardActivity extends AppCompatActivity implements SessionHistoryAdapter.OnSessionClickListener {
     private static final String TAG = "DashboardActivity";
     private static final int MAX_RECENT_SESSIONS = 3; // Maximum number of recent sessions to show
+    private static final int MAX_PREVIEW_EVENTS = 5;
 
     // User stats views
     private TextView pointsText;
@@ -52,9 +54,10 @@ public class DashboardActivity extends AppCompatActivity implements SessionHisto
     private EventPreviewAdapter eventAdapter;
 
     // Firebase
-    private FirebaseFirestore db;
     private FirebaseAuth auth;
-    private UserManager userManager;
+    private UserRepository userRepository;
+    private SessionRepository sessionRepository;
+    private EventRepository eventRepository;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -68,10 +71,11 @@ public class DashboardActivity extends AppCompatActivity implements SessionHisto
         EdgeToEdge.enable(this);
         setContentView(R.layout.activity_dashboard);
 
-        // Initialize Firebase and UserManager
-        db = FirebaseFirestore.getInstance();
+        // Initialize Firebase and UserRepository
         auth = FirebaseAuth.getInstance();
-        userManager = UserManager.getInstance();
+        userRepository = UserRepository.getInstance();
+        sessionRepository = SessionRepository.getInstance();
+        eventRepository = EventRepository.getInstance(this);
 
         // Initialize views
         initializeViews();
@@ -87,7 +91,7 @@ public class DashboardActivity extends AppCompatActivity implements SessionHisto
         loadUserData();
 
         // Load events
-        loadSampleEvents();
+        loadEventPreviews();
 
         // Load recent sessions
         loadRecentSessions();
@@ -215,39 +219,28 @@ public class DashboardActivity extends AppCompatActivity implements SessionHisto
         }
     }
 
-    private void loadSampleEvents() {
-        List<Event> events = new ArrayList<>();
-        events.add(new Event(
-                "1",
-                "Campus Music Festival",
-                "Join us for a night of amazing performances by student bands and professional artists.",
-                "March 15, 2025",
-                "7:30 PM",
-                "University Main Square",
-                "123 University Avenue, Nottingham NG1 1AA",
-                500,
-                R.drawable.ic_launcher_background
-        ));
-        events.add(new Event(
-                "2",
-                "Career Fair 2025",
-                "Connect with top employers and explore internship and job opportunities.",
-                "March 20, 2025",
-                "10:00 AM",
-                "Student Union Building",
-                "456 University Boulevard, Nottingham NG7 2RD",
-                200,
-                R.drawable.ic_launcher_background
-        ));
-        eventAdapter.setEvents(events);
+    // Cached events show immediately; a changed list from revalidation replaces them
+    private void loadEventPreviews() {
+        eventRepository.getUpcomingEventsPage(null, MAX_PREVIEW_EVENTS, new EventRepository.EventPageCallback() {
+            @Override
+            public void onSuccess(EventPage page) {
+                if (isFinishing()) return;
+                eventAdapter.setEvents(page.getEvents());
+            }
+
+            @Override
+            public void onError(String error) {
+                Log.e(TAG, "Failed to load event previews: " + error);
+            }
+        });
     }
 
     private void loadUserData() {
         // Initialize user stats then load data
-        userManager.initializeUserStats()
+        userRepository.initializeUserStats()
                 .addOnSuccessListener(aVoid -> {
                     // Now load current user data
-                    userManager.getCurrentUserData()
+                    userRepository.getCurrentUserData()
                             .addOnSuccessListener(user -> {
                                 if (user != null) {
                                     updateDashboardStats(user);
@@ -272,35 +265,16 @@ public class DashboardActivity extends AppCompatActivity implements SessionHisto
 
         // Then query for actual rank if we have an organization ID
         if (user.getOrganisationId() != null && !user.getOrganisationId().isEmpty()) {
-            loadUserRank(user.getUid(), user.getOrganisationId());
+            loadUserRank(user.getOrganisationId(), user.getPoints());
         }
     }
 
-    private void loadUserRank(String userId, String orgId) {
-        db.collection("users")
-                .whereEqualTo("organisationId", orgId)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    if (queryDocumentSnapshots.isEmpty()) {
-                        return;
-                    }
-
-                    List<User> users = new ArrayList<>();
-                    for (DocumentSnapshot doc : queryDocumentSnapshots) {
-                        users.add(doc.toObject(User.class));
-                    }
-
-                    Collections.sort(users, (u1, u2) -> Integer.compare(u2.getPoints(), u1.getPoints()));
-
-                    int rank = 1;
-                    for (User user : users) {
-                        if (user.getUid().equals(userId)) {
-                            // Found the user, set rank
-                            rankText.setText("#" + rank);
-                            break;
-                        }
-                        rank++;
-                    }
+    private void loadUserRank(String orgId, int points) {
+        // One aggregation read instead of downloading every user in the organisation
+        userRepository.getOrganisationRank(orgId, points)
+                .addOnSuccessListener(rank -> {
+                    if (isDestroyed() || isFinishing()) return;
+                    rankText.setText("#" + rank);
                 })
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Error loading rank", e);
@@ -323,56 +297,41 @@ public class DashboardActivity extends AppCompatActivity implements SessionHisto
 
         String userId = auth.getCurrentUser().getUid();
 
-        // Option 1: Just filter by hostId without ordering
-        db.collection("sessions")
-                .whereEqualTo("hostId", userId)
-                .limit(MAX_RECENT_SESSIONS)  // Still limit to 3
-                .get()  // Using get() instead of addSnapshotListener() to avoid index errors
+        // Leading pages of the ordered history, so the limit applies after sorting by startTime
+        loadRecentPages(sessionRepository.getUserSessionHistory(userId, MAX_RECENT_SESSIONS), new ArrayList<>())
                 .addOnCompleteListener(task -> {
                     if (isDestroyed() || isFinishing()) return;
 
-                    if (task.isSuccessful()) {
-                        List<StudySession> sessions = new ArrayList<>();
-
-                        if (task.getResult().isEmpty()) {
-                            // No sessions found
-                            noSessionsText.setVisibility(View.VISIBLE);
-                            recentSessionsList.setVisibility(View.GONE);
-                            return;
-                        }
-
-                        // Process each session document
-                        for (QueryDocumentSnapshot document : task.getResult()) {
-                            StudySession session = document.toObject(StudySession.class);
-                            sessions.add(session);
-                        }
-
-                        // Sort the results in memory instead of in the query
-                        Collections.sort(sessions, (a, b) -> {
-                            if (a.getStartTime() == null) return 1;
-                            if (b.getStartTime() == null) return -1;
-                            return b.getStartTime().compareTo(a.getStartTime());
-                        });
-
-                        // Limit to MAX_RECENT_SESSIONS
-                        if (sessions.size() > MAX_RECENT_SESSIONS) {
-                            sessions = sessions.subList(0, MAX_RECENT_SESSIONS);
-                        }
-
-                        // Update UI
-                        sessionAdapter.setSessions(sessions);
+                    if (task.isSuccessful() && !task.getResult().isEmpty()) {
+                        sessionAdapter.setSessions(task.getResult());
                         noSessionsText.setVisibility(View.GONE);
                         recentSessionsList.setVisibility(View.VISIBLE);
-
                     } else {
-                        // Error loading sessions
-                        Log.e(TAG, "Error getting recent sessions: ", task.getException());
+                        if (!task.isSuccessful()) {
+                            Log.e(TAG, "Error getting recent sessions: ", task.getException());
+                        }
                         noSessionsText.setVisibility(View.VISIBLE);
                         recentSessionsList.setVisibility(View.GONE);
                     }
                 });
     }
 
+    // A page can come back short when both history streams hold the same session, so keep paging
+    // until there are enough sessions or the history runs out
+    private Task<List<StudySession>> loadRecentPages(SessionHistoryPager pager, List<StudySession> loaded) {
+        return pager.loadNextPage().continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                return Tasks.forException(task.getException());
+            }
+
+            loaded.addAll(task.getResult());
+            if (loaded.size() >= MAX_RECENT_SESSIONS || !pager.hasMore()) {
+                return Tasks.forResult(new ArrayList<>(loaded.subList(0, Math.min(loaded.size(), MAX_RECENT_SESSIONS))));
+            }
+            return loadRecentPages(pager, loaded);
+        });
+    }
+
     @Override
     public void onSessionClick(StudySession session) {
         Intent intent = new Intent(this, SessionDetailsActivity.class);
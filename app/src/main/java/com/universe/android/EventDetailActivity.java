@@ -23,10 +23,10 @@ import com.google.android.gms.maps.model.MarkerOptions;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
-import com.universe.android.manager.UserManager;
 import com.universe.android.model.Event;
 import com.universe.android.model.Ticket;
-import com.universe.android.service.EventService;
+import com.universe.android.repository.EventRepository;
+import com.universe.android.repository.UserRepository;
 import com.universe.android.util.ThemeManager;
 
 public class EventDetailActivity extends AppCompatActivity implements OnMapReadyCallback {
@@ -49,8 +49,8 @@ public class EventDetailActivity extends AppCompatActivity implements OnMapReady
     private Event event;
     private int ticketQuantity = 1;
     private int userPoints = 0;
-    private EventService eventService;
-    private UserManager userManager;
+    private EventRepository eventRepository;
+    private UserRepository userRepository;
 
     // Map
     private GoogleMap googleMap;
@@ -67,8 +67,8 @@ public class EventDetailActivity extends AppCompatActivity implements OnMapReady
         setContentView(R.layout.activity_event_detail);
 
         // Initialize services
-        eventService = new EventService(this);
-        userManager = UserManager.getInstance();
+        eventRepository = EventRepository.getInstance(this);
+        userRepository = UserRepository.getInstance();
 
         // Get event from intent
         event = (Event) getIntent().getSerializableExtra("event");
@@ -210,7 +210,7 @@ public class EventDetailActivity extends AppCompatActivity implements OnMapReady
     }
 
     private void loadUserPoints() {
-        UserManager.getInstance().getCurrentUserData().addOnSuccessListener(user -> {
+        userRepository.getCurrentUserData().addOnSuccessListener(user -> {
             if (user != null) {
                 userPoints = user.getPoints();
                 Log.d(TAG, "User has " + userPoints + " points");
@@ -236,12 +236,12 @@ public class EventDetailActivity extends AppCompatActivity implements OnMapReady
         bookButton.setEnabled(false);
         bookButton.setText("Processing...");
 
-        // Call event service to book tickets
-        eventService.bookEvent(event.getId(), ticketQuantity, new EventService.BookingCallback() {
+        // Books with the event already shown; points are debited in the same write as the ticket
+        eventRepository.bookEvent(event, ticketQuantity, new EventRepository.BookingCallback() {
             @Override
             public void onSuccess(Ticket ticket) {
                 // Update user's event attendance counter and check for achievements
-                userManager.updateEventAttendance(EventDetailActivity.this)
+                userRepository.updateEventAttendance(EventDetailActivity.this)
                         .addOnSuccessListener(aVoid -> {
                             Log.d(TAG, "Successfully updated event attendance");
                         })
@@ -250,22 +250,13 @@ public class EventDetailActivity extends AppCompatActivity implements OnMapReady
                             // Continue with ticket creation even if stats update fails
                         });
 
-                // Deduct points from user
-                int totalCost = event.getPointsPrice() * ticketQuantity;
-                UserManager.getInstance().getCurrentUserData().addOnSuccessListener(user -> {
-                    if (user != null) {
-                        int newPoints = user.getPoints() - totalCost;
-                        UserManager.getInstance().updatePoints(newPoints);
-
-                        // Show success and go to ticket view
-                        Intent intent = new Intent(EventDetailActivity.this, TicketDetailActivity.class);
-                        intent.putExtra("ticket", ticket);
-                        startActivity(intent);
-
-                        // Finish this activity
-                        finish();
-                    }
-                });
+                // Show success and go to ticket view
+                Intent intent = new Intent(EventDetailActivity.this, TicketDetailActivity.class);
+                intent.putExtra("ticket", ticket);
+                startActivity(intent);
+
+                // Finish this activity
+                finish();
             }
 
             @Override
@@ -14,10 +14,12 @@ import com.google.android.material.snackbar.Snackbar;
 import com.google.android.material.tabs.TabLayout;
 import com.google.android.material.tabs.TabLayoutMediator;
 import com.universe.android.adapter.EventsPagerAdapter;
+import com.universe.android.adapter.SharedViewPool;
 import com.universe.android.util.NetworkUtil;
 import com.universe.android.util.ThemeManager;
 
-public class EventsActivity extends AppCompatActivity {
+public class EventsActivity extends AppCompatActivity implements SharedViewPool.Host {
+    private EventsPagerAdapter pagerAdapter;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -34,7 +36,7 @@ public class EventsActivity extends AppCompatActivity {
         ViewPager2 viewPager = findViewById(R.id.viewPager);
         TabLayout tabLayout = findViewById(R.id.tabLayout);
 
-        EventsPagerAdapter pagerAdapter = new EventsPagerAdapter(this);
+        pagerAdapter = new EventsPagerAdapter(this);
         viewPager.setAdapter(pagerAdapter);
 
         new TabLayoutMediator(tabLayout, viewPager,
@@ -74,6 +76,11 @@ public class EventsActivity extends AppCompatActivity {
         checkDockerApiAvailability();
     }
 
+    @Override
+    public SharedViewPool getSharedViewPool() {
+        return pagerAdapter != null ? pagerAdapter.getViewPool() : null;
+    }
+
     private void checkDockerApiAvailability() {
         if (!NetworkUtil.isNetworkAvailable(this)) {
             showNetworkError("No network connection");
@@ -142,13 +142,12 @@ public class JoinSessionActivity extends AppCompatActivity {
                     runOnUiThread(() -> {
                         if (updatedSession != null) {
                             // Update status with participant count
-                            userRepository.getCurrentUserData().addOnSuccessListener(user -> {
-                                if (!user.getUid().equals(updatedSession.getHostId())) {
-                                    statusText.setText("Waiting for host to start. " +
-                                            updatedSession.getParticipants().size() +
-                                            " participants in room.");
-                                }
-                            });
+                            String currentUserId = userRepository.getCurrentUserId();
+                            if (currentUserId != null && !currentUserId.equals(updatedSession.getHostId())) {
+                                statusText.setText("Waiting for host to start. " +
+                                        updatedSession.getParticipants().size() +
+                                        " participants in room.");
+                            }
 
                             // Check if session is started using isStarted() method
                             if (updatedSession.isStarted()) {
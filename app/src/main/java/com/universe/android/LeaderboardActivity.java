@@ -10,10 +10,11 @@ import com.google.android.material.button.MaterialButtonToggleGroup;
 import com.google.android.material.tabs.TabLayout;
 import com.google.android.material.tabs.TabLayoutMediator;
 import com.universe.android.adapter.LeaderboardPagerAdapter;
+import com.universe.android.adapter.SharedViewPool;
 import com.universe.android.util.NavigationHelper;
 import com.universe.android.util.ThemeManager;
 
-public class LeaderboardActivity extends AppCompatActivity {
+public class LeaderboardActivity extends AppCompatActivity implements SharedViewPool.Host {
 
     private ViewPager2 viewPager;
     private TabLayout tabLayout;
@@ -81,6 +82,11 @@ public class LeaderboardActivity extends AppCompatActivity {
         });
     }
 
+    @Override
+    public SharedViewPool getSharedViewPool() {
+        return pagerAdapter != null ? pagerAdapter.getViewPool() : null;
+    }
+
     @Override
     public boolean onSupportNavigateUp() {
         onBackPressed();
@@ -2,13 +2,10 @@ package com.universe.android;
 
 import android.app.PendingIntent;
 import android.content.Intent;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.net.Uri;
 import android.nfc.NfcAdapter;
 import android.nfc.Tag;
 import android.os.Bundle;
-import android.util.Base64;
 import android.util.Log;
 import android.view.View;
 import android.widget.Button;
@@ -31,6 +28,7 @@ import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseAuthInvalidCredentialsException;
 import com.google.firebase.auth.FirebaseUser;
 import com.universe.android.repository.UserRepository;
+import com.universe.android.util.AvatarLoader;
 import com.universe.android.util.NavigationHelper;
 import com.universe.android.util.NfcUtil;
 import com.universe.android.util.StatsHelper;
@@ -217,19 +215,19 @@ public class ProfileActivity extends AppCompatActivity {
                     lastActivityText.setText(lastActivity);
                 }
 
-                // Load profile image if available
-                if (user.getProfileImageBase64() != null && !user.getProfileImageBase64().isEmpty()) {
-                    // Convert Base64 to Bitmap
-                    byte[] decodedString = Base64.decode(user.getProfileImageBase64(), Base64.DEFAULT);
-                    Bitmap decodedByte = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-
-                    Glide.with(this)
-                            .load(decodedByte)
-                            .circleCrop()
-                            .placeholder(R.drawable.ic_launcher_foreground)
-                            .error(R.drawable.ic_launcher_foreground)
-                            .into(profileImage);
-                }
+                // Load profile image if available, decoded off the main thread via the shared cache
+                AvatarLoader.getInstance()
+                        .loadBitmap(user.getUid(), user.getAvatarHash(), user.getProfileImageBase64(),
+                                profileImage.getLayoutParams().width)
+                        .addOnSuccessListener(bitmap -> {
+                            if (bitmap == null || isDestroyed()) return;
+                            Glide.with(this)
+                                    .load(bitmap)
+                                    .circleCrop()
+                                    .placeholder(R.drawable.ic_launcher_foreground)
+                                    .error(R.drawable.ic_launcher_foreground)
+                                    .into(profileImage);
+                        });
             }
         }).addOnFailureListener(e -> {
             Toast.makeText(this, "Failed to load user data", Toast.LENGTH_SHORT).show();
@@ -362,7 +360,7 @@ public class ProfileActivity extends AppCompatActivity {
 
     private void uploadProfileImage(Uri imageUri) {
         userRepository.uploadProfileImage(imageUri, this).addOnSuccessListener(aVoid -> {
-            // Reload the user data to get the new Base64 image
+            // Reload the user data to pick up the new avatar hash
             loadUserData();
             Toast.makeText(this, "Profile image updated successfully", Toast.LENGTH_SHORT).show();
         }).addOnFailureListener(e -> {
@@ -376,7 +374,10 @@ public class ProfileActivity extends AppCompatActivity {
             usernameText.setText(newUsername);
             Toast.makeText(this, "Username updated successfully", Toast.LENGTH_SHORT).show();
         }).addOnFailureListener(e -> {
-            Toast.makeText(this, "Failed to update username", Toast.LENGTH_SHORT).show();
+            String message = e instanceof IllegalArgumentException
+                    ? e.getMessage()
+                    : "Failed to update username";
+            Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
             Log.e("ProfileActivity", "Error updating username", e);
         });
     }
@@ -447,7 +448,7 @@ public class ProfileActivity extends AppCompatActivity {
     private void updatePassword(String newPassword) {
         FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
         if (user != null) {
-            userRepository.updatePassword(newPassword, user.getEmail()).addOnSuccessListener(aVoid -> {
+            userRepository.updatePassword(newPassword).addOnSuccessListener(aVoid -> {
                 Toast.makeText(this, "Password updated successfully", Toast.LENGTH_SHORT).show();
             }).addOnFailureListener(e -> {
                 Toast.makeText(this, "Failed to update password", Toast.LENGTH_SHORT).show();
@@ -13,9 +13,6 @@ import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.button.MaterialButton;
 import com.universe.android.util.QrCodeUtil;
 
-import org.json.JSONException;
-import org.json.JSONObject;
-
 public class SessionQrActivity extends AppCompatActivity {
 
     private ImageView qrCodeImageView;
@@ -57,28 +54,14 @@ public class SessionQrActivity extends AppCompatActivity {
     }
 
     private void generateQrCode(String sessionId, String hostId, String hostUsername) {
-        try {
-            Log.d("SessionQrActivity", "Generating QR code for session: " + sessionId);
-
-            // Create JSON object with session information
-            JSONObject sessionData = new JSONObject();
-            sessionData.put("type", "session");
-            sessionData.put("sessionId", sessionId);
-            sessionData.put("hostId", hostId);
-            sessionData.put("hostUsername", hostUsername);
-
-            Log.d("SessionQrActivity", "QR code data: " + sessionData.toString());
-
-            // Generate QR code
-            Bitmap qrCode = QrCodeUtil.generateQrCodeFromJson(sessionData, 250, 250);
-
-            // Display QR code
-            if (qrCode != null) {
-                qrCodeImageView.setImageBitmap(qrCode);
-            }
-        } catch (JSONException e) {
-            Log.e("SessionQrActivity", "Error generating QR code: " + e.getMessage());
-            e.printStackTrace();
+        Log.d("SessionQrActivity", "Generating QR code for session: " + sessionId);
+
+        // Compact payload, decoded by StudySessionActivity's scanner
+        Bitmap qrCode = QrCodeUtil.generateSessionQrCode(sessionId, hostId, hostUsername, 250, 250);
+
+        // Display QR code
+        if (qrCode != null) {
+            qrCodeImageView.setImageBitmap(qrCode);
         }
     }
 
@@ -19,6 +19,7 @@ import com.google.firebase.firestore.ListenerRegistration;
 import com.universe.android.adapter.ParticipantAdapter;
 import com.universe.android.model.Participant;
 import com.universe.android.model.StudySession;
+import com.universe.android.repository.NfcRoster;
 import com.universe.android.repository.SessionRepository;
 import com.universe.android.repository.UserRepository;
 import com.universe.android.util.NfcUtil;
@@ -45,6 +46,7 @@ public class WaitingRoomActivity extends AppCompatActivity implements NfcUtil.Nf
 
     private UserRepository userRepository;
     private SessionRepository sessionRepository;
+    private NfcRoster nfcRoster;
 
     // Session settings
     private int duration;
@@ -69,6 +71,7 @@ public class WaitingRoomActivity extends AppCompatActivity implements NfcUtil.Nf
         // Initialize repositories
         userRepository = UserRepository.getInstance();
         sessionRepository = SessionRepository.getInstance();
+        nfcRoster = NfcRoster.getInstance();
 
         // Initialize NFC
         nfcAdapter = NfcUtil.initializeNfcAdapter(this);
@@ -122,6 +125,9 @@ public class WaitingRoomActivity extends AppCompatActivity implements NfcUtil.Nf
 
         userRepository.getCurrentUserData().addOnSuccessListener(user -> {
             if (user != null) {
+                // Preload the organisation's NFC roster so taps resolve locally
+                nfcRoster.start(user.getOrganisationId());
+
                 // Add host as first participant with actual username
                 List<Participant> participants = new ArrayList<>();
                 Participant hostParticipant = new Participant(user.getUsername() + " (Host)", true);
@@ -262,67 +268,81 @@ public class WaitingRoomActivity extends AppCompatActivity implements NfcUtil.Nf
 
     @Override
     public void onNfcTagDiscovered(Tag tag, String serialNumber) {
-        // Get user with this NFC ID
+        // Resolve from the preloaded organisation roster, no network round trip
+        NfcRoster.Entry entry = nfcRoster.resolve(serialNumber);
+        if (entry != null) {
+            addNfcParticipant(serialNumber, entry.getUserId(), entry.getUsername());
+            return;
+        }
+
+        // Roster still loading, tag not in the roster yet, or owned by someone in another organisation:
+        // look it up on the user documents, which also adds it to the roster
         userRepository.getUserByNfcId(serialNumber).addOnSuccessListener(user -> {
             if (user == null) {
-                Toast.makeText(this, "Unregistered NFC tag. Please register your tag in your profile.",
-                        Toast.LENGTH_LONG).show();
+                showUnregisteredTag();
                 return;
             }
 
-            String userId = user.getUid();
-            String participantName = user.getUsername();
+            addNfcParticipant(serialNumber, user.getUid(), user.getUsername());
+        }).addOnFailureListener(e -> {
+            Toast.makeText(this, "Error reading NFC tag: " + e.getMessage(),
+                    Toast.LENGTH_SHORT).show();
+        });
+    }
 
-            // Check if this NFC tag belongs to the host
-            if (userId.equals(userRepository.getCurrentUserId())) {
-                Toast.makeText(this, "This is your own NFC tag", Toast.LENGTH_SHORT).show();
-                return;
-            }
+    private void showUnregisteredTag() {
+        Toast.makeText(this, "Unregistered NFC tag. Please register your tag in your profile.",
+                Toast.LENGTH_LONG).show();
+    }
 
-            // Check if this participant already joined (by user ID)
-            List<Participant> currentParticipants = participantAdapter.getParticipants();
-            boolean alreadyJoined = false;
+    private void addNfcParticipant(String serialNumber, String userId, String participantName) {
+        // Check if this NFC tag belongs to the host
+        if (userId.equals(userRepository.getCurrentUserId())) {
+            Toast.makeText(this, "This is your own NFC tag", Toast.LENGTH_SHORT).show();
+            return;
+        }
 
-            for (Participant p : currentParticipants) {
-                // Check by userId if available
-                if (p.getUserId() != null && p.getUserId().equals(userId)) {
-                    alreadyJoined = true;
-                    break;
-                }
-            }
+        // Check if this participant already joined (by user ID)
+        List<Participant> currentParticipants = participantAdapter.getParticipants();
+        boolean alreadyJoined = false;
 
-            if (alreadyJoined) {
-                Toast.makeText(this, "This user has already joined!", Toast.LENGTH_SHORT).show();
-            } else {
-                // Create new participant with userId stored
-                Participant newParticipant = new Participant(participantName, true);
-                newParticipant.setUserId(userId);
-                newParticipant.setNfcId(serialNumber);
-                newParticipant.setActualUsername(participantName);
-
-                // Create participant data for Firestore
-                Map<String, String> participantMap = new HashMap<>();
-                participantMap.put("userId", userId);
-                participantMap.put("username", participantName);
-                participantMap.put("nfcId", serialNumber);
-
-                // Add to Firestore first, then update local UI
-                sessionRepository.addParticipantToSession(sessionId, participantMap)
-                        .addOnSuccessListener(aVoid -> {
-                            // Update local list after successful Firebase update
-                            currentParticipants.add(newParticipant);
-                            participantAdapter.setParticipants(currentParticipants);
-                            Toast.makeText(WaitingRoomActivity.this, participantName + " joined!", Toast.LENGTH_SHORT).show();
-                        })
-                        .addOnFailureListener(e -> {
-                            Toast.makeText(WaitingRoomActivity.this, "Error adding participant: " + e.getMessage(),
-                                    Toast.LENGTH_SHORT).show();
-                        });
+        for (Participant p : currentParticipants) {
+            // Check by userId if available
+            if (p.getUserId() != null && p.getUserId().equals(userId)) {
+                alreadyJoined = true;
+                break;
             }
-        }).addOnFailureListener(e -> {
-            Toast.makeText(this, "Error reading NFC tag: " + e.getMessage(),
-                    Toast.LENGTH_SHORT).show();
-        });
+        }
+
+        if (alreadyJoined) {
+            Toast.makeText(this, "This user has already joined!", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        // Create new participant with userId stored
+        Participant newParticipant = new Participant(participantName, true);
+        newParticipant.setUserId(userId);
+        newParticipant.setNfcId(serialNumber);
+        newParticipant.setActualUsername(participantName);
+
+        // Create participant data for Firestore
+        Map<String, String> participantMap = new HashMap<>();
+        participantMap.put("userId", userId);
+        participantMap.put("username", participantName);
+        participantMap.put("nfcId", serialNumber);
+
+        // Add to Firestore first, then update local UI
+        sessionRepository.addParticipantToSession(sessionId, participantMap)
+                .addOnSuccessListener(aVoid -> {
+                    // Update local list after successful Firebase update
+                    currentParticipants.add(newParticipant);
+                    participantAdapter.setParticipants(currentParticipants);
+                    Toast.makeText(WaitingRoomActivity.this, participantName + " joined!", Toast.LENGTH_SHORT).show();
+                })
+                .addOnFailureListener(e -> {
+                    Toast.makeText(WaitingRoomActivity.this, "Error adding participant: " + e.getMessage(),
+                            Toast.LENGTH_SHORT).show();
+                });
     }
 
     private void startSession() {
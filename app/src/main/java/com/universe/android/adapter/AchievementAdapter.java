@@ -15,12 +15,27 @@ import com.google.android.material.card.MaterialCardView;
 import com.universe.android.R;
 import com.universe.android.model.Achievement;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
-public class AchievementAdapter extends RecyclerView.Adapter<AchievementAdapter.AchievementViewHolder> {
+public class AchievementAdapter extends KeyedListAdapter<Achievement, AchievementAdapter.AchievementViewHolder> {
+
+    private static final KeyedItemCallback<Achievement> ACHIEVEMENT_DIFF = new KeyedItemCallback<Achievement>("achievement") {
+        @Override
+        protected String idOf(@NonNull Achievement achievement) {
+            return achievement.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Achievement oldItem, @NonNull Achievement newItem) {
+            // The repository hands out shared instances marked earned in place, so the same instance is always rebound
+            return oldItem != newItem
+                    && oldItem.isEarned() == newItem.isEarned()
+                    && oldItem.getIconResource() == newItem.getIconResource()
+                    && Objects.equals(oldItem.getTitle(), newItem.getTitle());
+        }
+    };
 
-    private List<Achievement> achievements = new ArrayList<>();
     private final OnAchievementClickListener listener;
 
     public interface OnAchievementClickListener {
@@ -28,6 +43,7 @@ public class AchievementAdapter extends RecyclerView.Adapter<AchievementAdapter.
     }
 
     public AchievementAdapter(OnAchievementClickListener listener) {
+        super(ACHIEVEMENT_DIFF);
         this.listener = listener;
     }
 
@@ -41,17 +57,11 @@ public class AchievementAdapter extends RecyclerView.Adapter<AchievementAdapter.
 
     @Override
     public void onBindViewHolder(@NonNull AchievementViewHolder holder, int position) {
-        holder.bind(achievements.get(position));
-    }
-
-    @Override
-    public int getItemCount() {
-        return achievements.size();
+        holder.bind(getItem(position));
     }
 
     public void setAchievements(List<Achievement> achievements) {
-        this.achievements = achievements;
-        notifyDataSetChanged();
+        submitList(achievements);
     }
 
     class AchievementViewHolder extends RecyclerView.ViewHolder {
@@ -70,7 +80,7 @@ public class AchievementAdapter extends RecyclerView.Adapter<AchievementAdapter.
             itemView.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onAchievementClick(achievements.get(position));
+                    listener.onAchievementClick(getItem(position));
                 }
             });
         }
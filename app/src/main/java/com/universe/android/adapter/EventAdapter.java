@@ -12,9 +12,27 @@ import com.universe.android.R;
 import com.universe.android.model.Event;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+
+public class EventAdapter extends KeyedListAdapter<Event, EventAdapter.EventViewHolder> {
+    static final KeyedItemCallback<Event> EVENT_DIFF = new KeyedItemCallback<Event>("event") {
+        @Override
+        protected String idOf(@NonNull Event event) {
+            return event.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Event oldItem, @NonNull Event newItem) {
+            return oldItem.getPointsPrice() == newItem.getPointsPrice()
+                    && oldItem.getImageResource() == newItem.getImageResource()
+                    && Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                    && Objects.equals(oldItem.getDate(), newItem.getDate())
+                    && Objects.equals(oldItem.getLocation(), newItem.getLocation());
+        }
+    };
+
+    public static final int VIEW_TYPE = R.layout.item_event;
 
-public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHolder> {
-    private List<Event> events = new ArrayList<>();
     private final OnEventClickListener listener;
 
     public interface OnEventClickListener {
@@ -22,9 +40,15 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
     }
 
     public EventAdapter(OnEventClickListener listener) {
+        super(EVENT_DIFF);
         this.listener = listener;
     }
 
+    @Override
+    public int getItemViewType(int position) {
+        return VIEW_TYPE;
+    }
+
     @NonNull
     @Override
     public EventViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -35,20 +59,25 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
 
     @Override
     public void onBindViewHolder(@NonNull EventViewHolder holder, int position) {
-        holder.bind(events.get(position));
+        holder.bind(this, getItem(position));
     }
 
-    @Override
-    public int getItemCount() {
-        return events.size();
+    public void setEvents(List<Event> events) {
+        submitList(events);
     }
 
-    public void setEvents(List<Event> events) {
-        this.events = events;
-        notifyDataSetChanged();
+    // Appends a loaded page; the diff sees the existing rows unchanged and only inserts the new ones
+    public void addEvents(List<Event> page) {
+        if (page.isEmpty()) return;
+
+        List<Event> events = new ArrayList<>(getSubmittedList());
+        events.addAll(page);
+        submitList(events);
     }
 
-    class EventViewHolder extends RecyclerView.ViewHolder {
+    // Static so holders can be pooled and prewarmed across the events pager's tabs
+    static class EventViewHolder extends RecyclerView.ViewHolder {
+        private EventAdapter boundAdapter;
         private final ImageView eventImage;
         private final TextView eventTitle;
         private final TextView eventDate;
@@ -64,20 +93,23 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
             eventLocation = itemView.findViewById(R.id.eventLocation);
             eventPrice = itemView.findViewById(R.id.eventPrice);
             bookButton = itemView.findViewById(R.id.bookButton);
+
+            // Resolved at click time, since an unchanged row keeps its holder across list updates
+            bookButton.setOnClickListener(v -> {
+                int position = getAdapterPosition();
+                if (position != RecyclerView.NO_POSITION && boundAdapter != null && boundAdapter.listener != null) {
+                    boundAdapter.listener.onEventClick(boundAdapter.getItem(position));
+                }
+            });
         }
 
-        void bind(Event event) {
+        void bind(EventAdapter adapter, Event event) {
+            boundAdapter = adapter;
             eventTitle.setText(event.getTitle());
             eventDate.setText(event.getDate());
             eventLocation.setText(event.getLocation());
             eventPrice.setText(String.format("%d points", event.getPointsPrice()));
             eventImage.setImageResource(event.getImageResource());
-
-            bookButton.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onEventClick(event);
-                }
-            });
         }
     }
 }
\ No newline at end of file
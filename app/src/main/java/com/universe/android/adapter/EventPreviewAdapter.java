@@ -9,11 +9,9 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 import com.universe.android.R;
 import com.universe.android.model.Event;
-import java.util.ArrayList;
 import java.util.List;
 
-public class EventPreviewAdapter extends RecyclerView.Adapter<EventPreviewAdapter.EventPreviewViewHolder> {
-    private List<Event> events = new ArrayList<>();
+public class EventPreviewAdapter extends KeyedListAdapter<Event, EventPreviewAdapter.EventPreviewViewHolder> {
     private final OnEventClickListener listener;
 
     public interface OnEventClickListener {
@@ -21,6 +19,7 @@ public class EventPreviewAdapter extends RecyclerView.Adapter<EventPreviewAdapte
     }
 
     public EventPreviewAdapter(OnEventClickListener listener) {
+        super(EventAdapter.EVENT_DIFF);
         this.listener = listener;
     }
 
@@ -34,17 +33,11 @@ public class EventPreviewAdapter extends RecyclerView.Adapter<EventPreviewAdapte
 
     @Override
     public void onBindViewHolder(@NonNull EventPreviewViewHolder holder, int position) {
-        holder.bind(events.get(position));
-    }
-
-    @Override
-    public int getItemCount() {
-        return events.size();
+        holder.bind(getItem(position));
     }
 
     public void setEvents(List<Event> events) {
-        this.events = events;
-        notifyDataSetChanged();
+        submitList(events);
     }
 
     class EventPreviewViewHolder extends RecyclerView.ViewHolder {
@@ -63,7 +56,7 @@ public class EventPreviewAdapter extends RecyclerView.Adapter<EventPreviewAdapte
             itemView.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onEventClick(events.get(position));
+                    listener.onEventClick(getItem(position));
                 }
             });
         }
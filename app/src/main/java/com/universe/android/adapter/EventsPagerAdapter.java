@@ -9,6 +9,7 @@ import com.universe.android.fragment.MyTicketsFragment;
 import com.universe.android.fragment.UpcomingEventsFragment;
 
 public class EventsPagerAdapter extends FragmentStateAdapter {
+    private final SharedViewPool viewPool = new SharedViewPool();
 
     public EventsPagerAdapter(@NonNull FragmentActivity fragmentActivity) {
         super(fragmentActivity);
@@ -25,4 +26,9 @@ public class EventsPagerAdapter extends FragmentStateAdapter {
         return 2; // Two tabs: Upcoming and My Tickets
     }
 
+    // Each tab prewarms the other's rows, so swiping across binds from the pool
+    public SharedViewPool getViewPool() {
+        return viewPool;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.universe.android.adapter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Base for list adapters: each submitted list is diffed against the current one on a background
+ * thread and only the inserted, moved, removed or changed rows are dispatched.
+ * Rows are matched by an item key that is unique within its item type, and the same key backs stable ids.
+ */
+public abstract class KeyedListAdapter<T, VH extends RecyclerView.ViewHolder> extends ListAdapter<T, VH> {
+
+    private final KeyedItemCallback<T> itemCallback;
+
+    // Key -> stable id, assigned on first sight; only touched on the main thread
+    private final Map<String, Long> stableIds = new HashMap<>();
+
+    // Latest list handed to submitList, which may still be diffing while getCurrentList() shows the old one
+    private List<T> submitted = Collections.emptyList();
+
+    protected KeyedListAdapter(@NonNull KeyedItemCallback<T> itemCallback) {
+        super(itemCallback);
+        this.itemCallback = itemCallback;
+        setHasStableIds(true);
+    }
+
+    /**
+     * Matches items by type-prefixed key; subclasses decide which fields count as visible contents
+     */
+    public abstract static class KeyedItemCallback<T> extends DiffUtil.ItemCallback<T> {
+        private final String type;
+
+        protected KeyedItemCallback(@NonNull String type) {
+            this.type = type;
+        }
+
+        protected abstract String idOf(@NonNull T item);
+
+        final String keyOf(@NonNull T item) {
+            return type + ":" + idOf(item);
+        }
+
+        @Override
+        public final boolean areItemsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+            return Objects.equals(idOf(oldItem), idOf(newItem));
+        }
+    }
+
+    // Lists are copied so later changes by the caller can't race the background diff
+    @Override
+    public void submitList(@Nullable List<T> list) {
+        submitted = list != null ? new ArrayList<>(list) : Collections.emptyList();
+        super.submitList(submitted);
+    }
+
+    @Override
+    public void submitList(@Nullable List<T> list, @Nullable Runnable commitCallback) {
+        submitted = list != null ? new ArrayList<>(list) : Collections.emptyList();
+        super.submitList(submitted, commitCallback);
+    }
+
+    protected List<T> getSubmittedList() {
+        return Collections.unmodifiableList(submitted);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        String key = itemCallback.keyOf(getItem(position));
+
+        Long id = stableIds.get(key);
+        if (id == null) {
+            id = (long) stableIds.size();
+            stableIds.put(key, id);
+        }
+        return id;
+    }
+}
@@ -1,9 +1,6 @@
 package com.universe.android.adapter;
 
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Color;
-import android.util.Base64;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -15,13 +12,37 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.universe.android.R;
 import com.universe.android.model.LeaderboardEntry;
+import com.universe.android.util.AvatarLoader;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
-public class LeaderboardAdapter extends RecyclerView.Adapter<LeaderboardAdapter.ViewHolder> {
+public class LeaderboardAdapter extends KeyedListAdapter<LeaderboardEntry, LeaderboardAdapter.ViewHolder> {
+
+    private static final KeyedItemCallback<LeaderboardEntry> ENTRY_DIFF = new KeyedItemCallback<LeaderboardEntry>("leaderboard") {
+        @Override
+        protected String idOf(@NonNull LeaderboardEntry entry) {
+            return entry.getUserId();
+        }
+
+        // Covers every value a row can show, whichever display mode is active
+        @Override
+        public boolean areContentsTheSame(@NonNull LeaderboardEntry oldItem, @NonNull LeaderboardEntry newItem) {
+            return oldItem.getRank() == newItem.getRank()
+                    && oldItem.getPoints() == newItem.getPoints()
+                    && oldItem.getLevel() == newItem.getLevel()
+                    && oldItem.getStudyTime() == newItem.getStudyTime()
+                    && oldItem.getStreakDays() == newItem.getStreakDays()
+                    && oldItem.isCurrentUser() == newItem.isCurrentUser()
+                    && Objects.equals(oldItem.getUsername(), newItem.getUsername())
+                    && Objects.equals(oldItem.getAvatarHash(), newItem.getAvatarHash())
+                    && Objects.equals(oldItem.getProfileImageBase64(), newItem.getProfileImageBase64());
+        }
+    };
+
+    // Shared by both leaderboard tabs through their pager's SharedViewPool
+    public static final int VIEW_TYPE = R.layout.item_leaderboard_entry;
 
-    private List<LeaderboardEntry> entries = new ArrayList<>();
     private OnLeaderboardEntryClickListener listener;
     private String displayMode = "points"; // Default display mode (points, hours, streak)
 
@@ -31,9 +52,15 @@ public class LeaderboardAdapter extends RecyclerView.Adapter<LeaderboardAdapter.
     }
 
     public LeaderboardAdapter(OnLeaderboardEntryClickListener listener) {
+        super(ENTRY_DIFF);
         this.listener = listener;
     }
 
+    @Override
+    public int getItemViewType(int position) {
+        return VIEW_TYPE;
+    }
+
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -44,26 +71,30 @@ public class LeaderboardAdapter extends RecyclerView.Adapter<LeaderboardAdapter.
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        LeaderboardEntry entry = entries.get(position);
-        holder.bind(entry);
+        LeaderboardEntry entry = getItem(position);
+        holder.bind(this, entry);
     }
 
     @Override
-    public int getItemCount() {
-        return entries.size();
+    public void onViewRecycled(@NonNull ViewHolder holder) {
+        AvatarLoader.getInstance().cancel(holder.userAvatar);
     }
 
     public void setEntries(List<LeaderboardEntry> entries) {
-        this.entries = entries;
-        notifyDataSetChanged();
+        submitList(entries);
     }
 
     public void setDisplayMode(String mode) {
+        if (mode.equals(displayMode)) return;
+
+        // Same rows, different value column, so rebind in place rather than rebuilding the list
         this.displayMode = mode;
-        notifyDataSetChanged();
+        notifyItemRangeChanged(0, getItemCount());
     }
 
+    // Position in the list being shown, which lags setEntries until its diff has been applied
     public int getCurrentUserPosition() {
+        List<LeaderboardEntry> entries = getCurrentList();
         for (int i = 0; i < entries.size(); i++) {
             if (entries.get(i).isCurrentUser()) {
                 return i;
@@ -72,7 +103,9 @@ public class LeaderboardAdapter extends RecyclerView.Adapter<LeaderboardAdapter.
         return -1;
     }
 
-    class ViewHolder extends RecyclerView.ViewHolder {
+    // Static so a pooled holder serves whichever tab's adapter binds it last
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        private LeaderboardAdapter boundAdapter;
         private final TextView rankNumber;
         private final ImageView userAvatar;
         private final TextView username;
@@ -90,23 +123,24 @@ public class LeaderboardAdapter extends RecyclerView.Adapter<LeaderboardAdapter.
             // Normal click listener
             itemView.setOnClickListener(v -> {
                 int position = getAdapterPosition();
-                if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onEntryClick(entries.get(position));
+                if (position != RecyclerView.NO_POSITION && boundAdapter != null && boundAdapter.listener != null) {
+                    boundAdapter.listener.onEntryClick(boundAdapter.getItem(position));
                 }
             });
 
             // Long click listener for friend removal
             itemView.setOnLongClickListener(v -> {
                 int position = getAdapterPosition();
-                if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onEntryLongClick(entries.get(position));
+                if (position != RecyclerView.NO_POSITION && boundAdapter != null && boundAdapter.listener != null) {
+                    boundAdapter.listener.onEntryLongClick(boundAdapter.getItem(position));
                     return true;
                 }
                 return false;
             });
         }
 
-        void bind(LeaderboardEntry entry) {
+        void bind(LeaderboardAdapter adapter, LeaderboardEntry entry) {
+            boundAdapter = adapter;
             rankNumber.setText(String.valueOf(entry.getRank()));
 
             // Set username and highlight if it's the current user
@@ -124,7 +158,7 @@ public class LeaderboardAdapter extends RecyclerView.Adapter<LeaderboardAdapter.
             userLevel.setText("Level " + entry.getLevel());
 
             // Set value based on display mode
-            switch (displayMode) {
+            switch (adapter.displayMode) {
                 case "hours":
                     pointsValue.setText(entry.getFormattedStudyTime() + " hours");
                     break;
@@ -137,18 +171,9 @@ public class LeaderboardAdapter extends RecyclerView.Adapter<LeaderboardAdapter.
                     break;
             }
 
-            // Set avatar image if available
-            if (entry.getProfileImageBase64() != null && !entry.getProfileImageBase64().isEmpty()) {
-                try {
-                    byte[] decodedString = Base64.decode(entry.getProfileImageBase64(), Base64.DEFAULT);
-                    Bitmap decodedByte = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-                    userAvatar.setImageBitmap(decodedByte);
-                } catch (Exception e) {
-                    userAvatar.setImageResource(R.drawable.ic_launcher_foreground);
-                }
-            } else {
-                userAvatar.setImageResource(R.drawable.ic_launcher_foreground);
-            }
+            // Decoded off the main thread and cached across rows and screens
+            AvatarLoader.getInstance().load(userAvatar, entry.getUserId(),
+                    entry.getAvatarHash(), entry.getProfileImageBase64());
 
             // Customize background of top 3 ranks
             if (entry.getRank() <= 3) {
@@ -16,6 +16,7 @@ public class LeaderboardPagerAdapter extends FragmentStateAdapter {
     private String displayMode;
     private GlobalLeaderboardFragment globalFragment;
     private FriendsLeaderboardFragment friendsFragment;
+    private final SharedViewPool viewPool = new SharedViewPool();
 
     public LeaderboardPagerAdapter(@NonNull FragmentActivity fragmentActivity, String displayMode) {
         super(fragmentActivity);
@@ -41,6 +42,13 @@ public class LeaderboardPagerAdapter extends FragmentStateAdapter {
         return 2; // Two tabs: Global and Friends
     }
 
+    /**
+     * Pool shared by both tabs, which show the same leaderboard rows
+     */
+    public SharedViewPool getViewPool() {
+        return viewPool;
+    }
+
     /**
      * Update display mode for both fragments
      */
@@ -9,11 +9,23 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 import com.universe.android.R;
 import com.universe.android.model.Organisation;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+
+public class OrganisationAdapter extends KeyedListAdapter<Organisation, OrganisationAdapter.OrganisationViewHolder> {
+    private static final KeyedItemCallback<Organisation> ORGANISATION_DIFF = new KeyedItemCallback<Organisation>("organisation") {
+        @Override
+        protected String idOf(@NonNull Organisation organisation) {
+            return organisation.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Organisation oldItem, @NonNull Organisation newItem) {
+            return oldItem.getLogoResource() == newItem.getLogoResource()
+                    && Objects.equals(oldItem.getName(), newItem.getName());
+        }
+    };
 
-public class OrganisationAdapter extends RecyclerView.Adapter<OrganisationAdapter.OrganisationViewHolder> {
-    private List<Organisation> organisations = new ArrayList<>();
     private OnOrganisationClickListener listener;
 
     public interface OnOrganisationClickListener {
@@ -21,6 +33,7 @@ public class OrganisationAdapter extends RecyclerView.Adapter<OrganisationAdapte
     }
 
     public OrganisationAdapter(OnOrganisationClickListener listener) {
+        super(ORGANISATION_DIFF);
         this.listener = listener;
     }
 
@@ -34,17 +47,11 @@ public class OrganisationAdapter extends RecyclerView.Adapter<OrganisationAdapte
 
     @Override
     public void onBindViewHolder(@NonNull OrganisationViewHolder holder, int position) {
-        holder.bind(organisations.get(position));
-    }
-
-    @Override
-    public int getItemCount() {
-        return organisations.size();
+        holder.bind(getItem(position));
     }
 
     public void setOrganisations(List<Organisation> organisations) {
-        this.organisations = organisations;
-        notifyDataSetChanged();
+        submitList(organisations);
     }
 
     class OrganisationViewHolder extends RecyclerView.ViewHolder {
@@ -59,7 +66,7 @@ public class OrganisationAdapter extends RecyclerView.Adapter<OrganisationAdapte
             itemView.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onOrganisationClick(organisations.get(position));
+                    listener.onOrganisationClick(getItem(position));
                 }
             });
         }
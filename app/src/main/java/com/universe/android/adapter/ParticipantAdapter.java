@@ -1,8 +1,6 @@
 package com.universe.android.adapter;
 
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.util.Base64;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -12,21 +10,55 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.google.firebase.firestore.FirebaseFirestore;
 import com.universe.android.R;
+import com.universe.android.model.LeaderboardEntry;
 import com.universe.android.model.Participant;
-import com.universe.android.model.User;
+import com.universe.android.repository.LeaderboardRepository;
+import com.universe.android.util.AvatarLoader;
 import com.universe.android.util.StatsHelper;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+public class ParticipantAdapter extends KeyedListAdapter<Participant, ParticipantAdapter.ParticipantViewHolder> {
+    private static final String TAG = "ParticipantAdapter";
+
+    private static final KeyedItemCallback<Participant> PARTICIPANT_DIFF = new KeyedItemCallback<Participant>("participant") {
+        // Guests added by tag alone have no user id yet
+        @Override
+        protected String idOf(@NonNull Participant participant) {
+            // Participants passed in without a uid or tag carry "" rather than null
+            if (!isEmpty(participant.getUserId())) return participant.getUserId();
+            if (!isEmpty(participant.getNfcId())) return "nfc:" + participant.getNfcId();
+            return "name:" + participant.getName();
+        }
+
+        private boolean isEmpty(String value) {
+            return value == null || value.isEmpty();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Participant oldItem, @NonNull Participant newItem) {
+            return oldItem.isActive() == newItem.isActive()
+                    && Objects.equals(oldItem.getName(), newItem.getName());
+        }
+    };
 
-public class ParticipantAdapter extends RecyclerView.Adapter<ParticipantAdapter.ParticipantViewHolder> {
-    private List<Participant> participants = new ArrayList<>();
-    private FirebaseFirestore db;
+    private final LeaderboardRepository leaderboardRepository;
+
+    // Profiles fetched so far (projection, or user document when there is none), bound from memory;
+    // requested holds ids in flight or already resolved
+    private final Map<String, LeaderboardEntry> profiles = new HashMap<>();
+    private final Set<String> requested = new HashSet<>();
 
     public ParticipantAdapter() {
-        this.db = FirebaseFirestore.getInstance();
+        super(PARTICIPANT_DIFF);
+        this.leaderboardRepository = LeaderboardRepository.getInstance();
     }
 
     @NonNull
@@ -39,17 +71,58 @@ public class ParticipantAdapter extends RecyclerView.Adapter<ParticipantAdapter.
 
     @Override
     public void onBindViewHolder(@NonNull ParticipantViewHolder holder, int position) {
-        holder.bind(participants.get(position));
+        holder.bind(getItem(position));
     }
 
     @Override
-    public int getItemCount() {
-        return participants.size();
+    public void onViewRecycled(@NonNull ParticipantViewHolder holder) {
+        AvatarLoader.getInstance().cancel(holder.participantImage);
     }
 
     public void setParticipants(List<Participant> participants) {
-        this.participants = participants;
-        notifyDataSetChanged();
+        submitList(participants);
+        prefetchProfiles(participants);
+    }
+
+    // One chunked batch read for every participant not fetched yet, instead of a read per bind
+    private void prefetchProfiles(List<Participant> participants) {
+        Set<String> missing = new HashSet<>();
+        for (Participant participant : participants) {
+            String userId = participant.getUserId();
+            if (userId != null && !userId.isEmpty()
+                    && !profiles.containsKey(userId) && !requested.contains(userId)) {
+                missing.add(userId);
+            }
+        }
+
+        if (missing.isEmpty()) return;
+        requested.addAll(missing);
+
+        leaderboardRepository.getEntries(missing)
+                .addOnSuccessListener(entries -> {
+                    Set<String> loaded = new HashSet<>();
+                    for (LeaderboardEntry entry : entries) {
+                        profiles.put(entry.getUserId(), entry);
+                        loaded.add(entry.getUserId());
+                    }
+
+                    // Ids with neither a projection nor a user document are retried on the next list change
+                    Set<String> unresolved = new HashSet<>(missing);
+                    unresolved.removeAll(loaded);
+                    requested.removeAll(unresolved);
+
+                    // Rebind only rows currently showing a loaded participant
+                    List<Participant> shown = getCurrentList();
+                    for (int i = 0; i < shown.size(); i++) {
+                        if (loaded.contains(shown.get(i).getUserId())) {
+                            notifyItemChanged(i);
+                        }
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Failed to load participant profiles", e);
+                    requested.removeAll(missing);
+                });
     }
 
     class ParticipantViewHolder extends RecyclerView.ViewHolder {
@@ -74,48 +147,35 @@ public class ParticipantAdapter extends RecyclerView.Adapter<ParticipantAdapter.
 
             // Default values
             participantCourse.setText("MSc Computer Science"); // Default course
-            participantLevel.setText("LVL 1"); // Default level
 
-            // If we have a userId, load additional user information from Firestore
-            if (participant.getUserId() != null && !participant.getUserId().isEmpty()) {
-                loadUserDetails(participant.getUserId());
+            // Bound synchronously from the prefetched profiles, so no callback can land on a rebound holder
+            LeaderboardEntry profile = participant.getUserId() != null
+                    ? profiles.get(participant.getUserId())
+                    : null;
+
+            if (profile == null) {
+                participantLevel.setText("LVL 1"); // Default level
+                participantBadge.setVisibility(View.GONE);
+                AvatarLoader.getInstance().load(participantImage, participant.getUserId(), null, null);
+                return;
             }
-        }
 
-        private void loadUserDetails(String userId) {
-            db.collection("users").document(userId).get()
-                    .addOnSuccessListener(documentSnapshot -> {
-                        if (documentSnapshot.exists()) {
-                            User user = documentSnapshot.toObject(User.class);
-                            if (user != null) {
-                                // Calculate user level based on points
-                                int level = calculateLevel(user.getPoints());
-                                participantLevel.setText("LVL " + level);
-
-                                // Set user profile image if available
-                                if (user.getProfileImageBase64() != null && !user.getProfileImageBase64().isEmpty()) {
-                                    try {
-                                        // Convert Base64 to Bitmap
-                                        byte[] decodedString = Base64.decode(user.getProfileImageBase64(), Base64.DEFAULT);
-                                        Bitmap decodedByte = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-                                        participantImage.setImageBitmap(decodedByte);
-                                    } catch (Exception e) {
-                                        // Fallback to default image
-                                        participantImage.setImageResource(R.drawable.ic_launcher_foreground);
-                                    }
-                                }
-
-                                // Show trophy badge if user has high points
-                                if (user.getPoints() > 1000) {
-                                    participantBadge.setVisibility(View.VISIBLE);
-                                } else {
-                                    participantBadge.setVisibility(View.GONE);
-                                }
-
-                                // For now, don't have course info in the User model
-                            }
-                        }
-                    });
+            // Calculate user level based on points
+            int level = calculateLevel(profile.getPoints());
+            participantLevel.setText("LVL " + level);
+
+            // Set user profile image if available
+            AvatarLoader.getInstance().load(participantImage, profile.getUserId(),
+                    profile.getAvatarHash(), profile.getProfileImageBase64());
+
+            // Show trophy badge if user has high points
+            if (profile.getPoints() > 1000) {
+                participantBadge.setVisibility(View.VISIBLE);
+            } else {
+                participantBadge.setVisibility(View.GONE);
+            }
+
+            // For now, don't have course info in the User model
         }
 
         private int calculateLevel(int points) {
@@ -124,6 +184,6 @@ public class ParticipantAdapter extends RecyclerView.Adapter<ParticipantAdapter.
     }
 
     public List<Participant> getParticipants() {
-        return new ArrayList<>(participants); // Returning copy to prevent external modifications
+        return new ArrayList<>(getSubmittedList()); // Returning copy to prevent external modifications
     }
 }
\ No newline at end of file
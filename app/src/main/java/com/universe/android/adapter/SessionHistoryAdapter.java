@@ -18,9 +18,25 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
+
+public class SessionHistoryAdapter extends KeyedListAdapter<StudySession, SessionHistoryAdapter.SessionViewHolder> {
+    private static final KeyedItemCallback<StudySession> SESSION_DIFF = new KeyedItemCallback<StudySession>("session") {
+        @Override
+        protected String idOf(@NonNull StudySession session) {
+            return session.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull StudySession oldItem, @NonNull StudySession newItem) {
+            return oldItem.isCompleted() == newItem.isCompleted()
+                    && oldItem.getDurationSeconds() == newItem.getDurationSeconds()
+                    && oldItem.getPointsAwarded() == newItem.getPointsAwarded()
+                    && oldItem.getParticipantCount() == newItem.getParticipantCount()
+                    && Objects.equals(oldItem.getStartTime(), newItem.getStartTime());
+        }
+    };
 
-public class SessionHistoryAdapter extends RecyclerView.Adapter<SessionHistoryAdapter.SessionViewHolder> {
-    private List<StudySession> sessions = new ArrayList<>();
     private final OnSessionClickListener listener;
 
     public interface OnSessionClickListener {
@@ -29,6 +45,7 @@ public class SessionHistoryAdapter extends RecyclerView.Adapter<SessionHistoryAd
     }
 
     public SessionHistoryAdapter(OnSessionClickListener listener) {
+        super(SESSION_DIFF);
         this.listener = listener;
     }
 
@@ -42,19 +59,27 @@ public class SessionHistoryAdapter extends RecyclerView.Adapter<SessionHistoryAd
 
     @Override
     public void onBindViewHolder(@NonNull SessionViewHolder holder, int position) {
-        StudySession session = sessions.get(position);
+        StudySession session = getItem(position);
         Log.d("SessionHistoryAdapter", "Binding session " + session.getId() + " at position " + position);
         holder.bind(session);
     }
 
-    @Override
-    public int getItemCount() {
-        return sessions.size();
+    public void setSessions(List<StudySession> sessions) {
+        submitList(sessions);
     }
 
-    public void setSessions(List<StudySession> sessions) {
-        this.sessions = sessions;
-        notifyDataSetChanged();
+    // Appends a loaded page; the diff sees the existing rows unchanged and only inserts the new ones
+    public void addSessions(List<StudySession> page) {
+        if (page.isEmpty()) return;
+
+        List<StudySession> sessions = new ArrayList<>(getSubmittedList());
+        sessions.addAll(page);
+        submitList(sessions);
+    }
+
+    // Sessions loaded so far, counting any page whose diff hasn't reached the list yet
+    public int getSessionCount() {
+        return getSubmittedList().size();
     }
 
     class SessionViewHolder extends RecyclerView.ViewHolder {
@@ -78,14 +103,14 @@ public class SessionHistoryAdapter extends RecyclerView.Adapter<SessionHistoryAd
             itemView.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onSessionClick(sessions.get(position));
+                    listener.onSessionClick(getItem(position));
                 }
             });
 
             sessionDetailsButton.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && listener != null) {
-                    listener.onDetailsClick(sessions.get(position));
+                    listener.onDetailsClick(getItem(position));
                 }
             });
         }
@@ -0,0 +1,72 @@
+package com.universe.android.adapter;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * One RecycledViewPool for all the tabs of a pager. Holders inflated by one tab are reused by the
+ * next, and the adjacent tab's holders can be inflated ahead of time while the main thread is idle.
+ * Adapters sharing a pool return their layout id as view type, so a type always maps to one layout,
+ * and their holders must not reach into the adapter that created them.
+ */
+public class SharedViewPool {
+    private static final int MAX_PER_TYPE = 15;
+    private static final int PREWARM_ROWS = 8; // About a screenful of rows
+
+    private final RecyclerView.RecycledViewPool pool = new RecyclerView.RecycledViewPool();
+
+    /**
+     * Implemented by activities hosting a pager, so its tab fragments can find the pool
+     */
+    public interface Host {
+        SharedViewPool getSharedViewPool();
+    }
+
+    /**
+     * The pool of the pager hosting this fragment, or null when it isn't hosted by one
+     */
+    @Nullable
+    public static SharedViewPool of(Fragment fragment) {
+        if (fragment.getActivity() instanceof Host) {
+            return ((Host) fragment.getActivity()).getSharedViewPool();
+        }
+        return null;
+    }
+
+    /**
+     * Makes the list draw holders from the shared pool, and hand them back when its tab is destroyed.
+     * Call after the layout manager has been set.
+     */
+    public void attach(RecyclerView recyclerView) {
+        recyclerView.setRecycledViewPool(pool);
+
+        if (recyclerView.getLayoutManager() instanceof LinearLayoutManager) {
+            ((LinearLayoutManager) recyclerView.getLayoutManager()).setRecycleChildrenOnDetach(true);
+        }
+    }
+
+    /**
+     * Inflates holders of viewType until the pool holds a screenful of them, one per idle pass of the
+     * main thread so no frame pays for more than a single row. parent only provides the inflation
+     * context and layout params; nothing is created once it leaves the window.
+     */
+    public void prewarm(RecyclerView parent, RecyclerView.Adapter<?> factory, int viewType) {
+        pool.setMaxRecycledViews(viewType, MAX_PER_TYPE);
+
+        MessageQueue.IdleHandler inflateOne = () -> {
+            if (!parent.isAttachedToWindow() || pool.getRecycledViewCount(viewType) >= PREWARM_ROWS) {
+                return false;
+            }
+
+            pool.putRecycledView(factory.createViewHolder(parent, viewType));
+            return pool.getRecycledViewCount(viewType) < PREWARM_ROWS;
+        };
+        // Posted so it starts once the list is attached, after the tab's own first layout
+        parent.post(() -> Looper.myQueue().addIdleHandler(inflateOne));
+    }
+}
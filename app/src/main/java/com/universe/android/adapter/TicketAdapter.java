@@ -15,11 +15,28 @@ import com.google.android.material.chip.Chip;
 import com.universe.android.R;
 import com.universe.android.model.Ticket;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+
+public class TicketAdapter extends KeyedListAdapter<Ticket, TicketAdapter.TicketViewHolder> {
+    private static final KeyedItemCallback<Ticket> TICKET_DIFF = new KeyedItemCallback<Ticket>("ticket") {
+        @Override
+        protected String idOf(@NonNull Ticket ticket) {
+            return ticket.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Ticket oldItem, @NonNull Ticket newItem) {
+            return oldItem.isUsed() == newItem.isUsed()
+                    && oldItem.getNumberOfTickets() == newItem.getNumberOfTickets()
+                    && Objects.equals(oldItem.getVerificationCode(), newItem.getVerificationCode())
+                    && Objects.equals(oldItem.getEvent().getTitle(), newItem.getEvent().getTitle())
+                    && Objects.equals(oldItem.getEvent().getFormattedDateTime(), newItem.getEvent().getFormattedDateTime());
+        }
+    };
+
+    public static final int VIEW_TYPE = R.layout.item_ticket;
 
-public class TicketAdapter extends RecyclerView.Adapter<TicketAdapter.TicketViewHolder> {
-    private List<Ticket> tickets = new ArrayList<>();
     private final OnTicketClickListener listener;
 
     public interface OnTicketClickListener {
@@ -27,13 +44,20 @@ public class TicketAdapter extends RecyclerView.Adapter<TicketAdapter.TicketView
     }
 
     public TicketAdapter(OnTicketClickListener listener) {
+        super(TICKET_DIFF);
         this.listener = listener;
     }
 
     public TicketAdapter() {
+        super(TICKET_DIFF);
         this.listener = null;
     }
 
+    @Override
+    public int getItemViewType(int position) {
+        return VIEW_TYPE;
+    }
+
     @NonNull
     @Override
     public TicketViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -44,20 +68,16 @@ public class TicketAdapter extends RecyclerView.Adapter<TicketAdapter.TicketView
 
     @Override
     public void onBindViewHolder(@NonNull TicketViewHolder holder, int position) {
-        holder.bind(tickets.get(position));
-    }
-
-    @Override
-    public int getItemCount() {
-        return tickets.size();
+        holder.bind(this, getItem(position));
     }
 
     public void setTickets(List<Ticket> tickets) {
-        this.tickets = tickets;
-        notifyDataSetChanged();
+        submitList(tickets);
     }
 
-    class TicketViewHolder extends RecyclerView.ViewHolder {
+    // Static so holders can be pooled and prewarmed across the events pager's tabs
+    static class TicketViewHolder extends RecyclerView.ViewHolder {
+        private TicketAdapter boundAdapter;
         private final MaterialCardView cardView;
         private final TextView eventTitle;
         private final TextView eventDate;
@@ -76,18 +96,18 @@ public class TicketAdapter extends RecyclerView.Adapter<TicketAdapter.TicketView
             qrCode = itemView.findViewById(R.id.qrCode);
             statusChip = itemView.findViewById(R.id.statusChip);
 
-            // Set click listener if provided
-            if (listener != null) {
-                cardView.setOnClickListener(v -> {
-                    int position = getAdapterPosition();
-                    if (position != RecyclerView.NO_POSITION) {
-                        listener.onTicketClick(tickets.get(position));
-                    }
-                });
-            }
+            // Goes to whichever adapter bound the holder last, which may have no listener
+            cardView.setOnClickListener(v -> {
+                int position = getAdapterPosition();
+                if (position != RecyclerView.NO_POSITION && boundAdapter != null && boundAdapter.listener != null) {
+                    boundAdapter.listener.onTicketClick(boundAdapter.getItem(position));
+                }
+            });
         }
 
-        void bind(Ticket ticket) {
+        void bind(TicketAdapter adapter, Ticket ticket) {
+            boundAdapter = adapter;
+            cardView.setClickable(adapter.listener != null);
             // Set text fields
             eventTitle.setText(ticket.getEvent().getTitle());
             eventDate.setText(ticket.getEvent().getFormattedDateTime());
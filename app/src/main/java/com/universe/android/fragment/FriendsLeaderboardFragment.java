@@ -23,17 +23,17 @@ import com.universe.android.FriendNfcActivity;
 import com.universe.android.FriendQrActivity;
 import com.universe.android.R;
 import com.universe.android.adapter.LeaderboardAdapter;
+import com.universe.android.adapter.SharedViewPool;
 import com.universe.android.model.LeaderboardEntry;
-import com.universe.android.model.User;
+import com.universe.android.repository.FriendsLeaderboardCache;
 import com.universe.android.repository.UserRepository;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
-public class FriendsLeaderboardFragment extends Fragment implements LeaderboardAdapter.OnLeaderboardEntryClickListener {
+public class FriendsLeaderboardFragment extends Fragment implements LeaderboardAdapter.OnLeaderboardEntryClickListener,
+        FriendsLeaderboardCache.OnFriendsChangedListener {
     private static final String TAG = "FriendsLeaderboard";
+    private static final int LEADERBOARD_LIMIT = 100;
 
     private RecyclerView leaderboardRecyclerView;
     private ProgressBar progressBar;
@@ -44,6 +44,7 @@ public class FriendsLeaderboardFragment extends Fragment implements LeaderboardA
 
     private LeaderboardAdapter adapter;
     private UserRepository userRepository;
+    private FriendsLeaderboardCache friendsCache;
     private String displayMode = "points"; // Default display mode (points, hours, streak)
 
     public FriendsLeaderboardFragment() {
@@ -65,6 +66,7 @@ public class FriendsLeaderboardFragment extends Fragment implements LeaderboardA
         }
 
         userRepository = UserRepository.getInstance();
+        friendsCache = FriendsLeaderboardCache.getInstance();
     }
 
     @Override
@@ -88,6 +90,13 @@ public class FriendsLeaderboardFragment extends Fragment implements LeaderboardA
         leaderboardRecyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
         leaderboardRecyclerView.setAdapter(adapter);
 
+        // Rows come from the pool shared with the global tab, which is warmed for it in idle time
+        SharedViewPool viewPool = SharedViewPool.of(this);
+        if (viewPool != null) {
+            viewPool.attach(leaderboardRecyclerView);
+            viewPool.prewarm(leaderboardRecyclerView, adapter, LeaderboardAdapter.VIEW_TYPE);
+        }
+
         // Add padding to recycler view to avoid overlap with add friend card
         leaderboardRecyclerView.setPadding(0, 0, 0,
                 getResources().getDimensionPixelSize(R.dimen.user_rank_card_height));
@@ -98,7 +107,31 @@ public class FriendsLeaderboardFragment extends Fragment implements LeaderboardA
         addFriendQrButton.setOnClickListener(v -> showQRCodeFriendActivity());
         addFriendNfcButton.setOnClickListener(v -> showNFCFriendActivity());
 
-        loadFriendsLeaderboardData();
+        showLoading();
+    }
+
+    @Override
+    public void onStart() {
+        super.onStart();
+        // Replays straight from memory when the cache is already warm
+        friendsCache.addListener(this);
+    }
+
+    @Override
+    public void onStop() {
+        friendsCache.removeListener(this);
+        super.onStop();
+    }
+
+    @Override
+    public void onFriendsChanged() {
+        renderLeaderboard();
+    }
+
+    @Override
+    public void onFriendsError(Exception e) {
+        Log.e(TAG, "Error loading friends leaderboard", e);
+        showError("Failed to load friends data");
     }
 
     @Override
@@ -128,9 +161,8 @@ public class FriendsLeaderboardFragment extends Fragment implements LeaderboardA
     private void removeFriend(String friendId) {
         userRepository.removeFriend(friendId)
                 .addOnSuccessListener(aVoid -> {
+                    // The cache drops the row when the current user's friend list changes
                     Toast.makeText(getContext(), "Friend removed successfully", Toast.LENGTH_SHORT).show();
-                    // Reload the friends list to reflect changes
-                    loadFriendsLeaderboardData();
                 })
                 .addOnFailureListener(e -> {
                     Toast.makeText(getContext(), "Failed to remove friend: " + e.getMessage(),
@@ -143,58 +175,22 @@ public class FriendsLeaderboardFragment extends Fragment implements LeaderboardA
         if (adapter != null) {
             adapter.setDisplayMode(mode);
         }
-        loadFriendsLeaderboardData();
+        // Re-sorts cached rows, no network
+        if (friendsCache.isLoaded()) {
+            renderLeaderboard();
+        }
     }
 
-    private void loadFriendsLeaderboardData() {
-        if (getActivity() == null) return;
-
+    private void showLoading() {
         progressBar.setVisibility(View.VISIBLE);
         leaderboardRecyclerView.setVisibility(View.GONE);
         emptyStateText.setVisibility(View.GONE);
-
-        userRepository.getFriendsLeaderboard(displayMode)
-                .addOnSuccessListener(users -> {
-                    if (getActivity() == null) return;
-
-                    sortUsers(users, displayMode);
-
-                    List<LeaderboardEntry> entries = new ArrayList<>();
-                    for (int i = 0; i < users.size(); i++) {
-                        User user = users.get(i);
-                        LeaderboardEntry entry = new LeaderboardEntry(user, i + 1);
-
-                        if (user.getUid().equals(userRepository.getCurrentUserId())) {
-                            entry.setCurrentUser(true);
-                        }
-
-                        entries.add(entry);
-                    }
-
-                    updateLeaderboardUI(entries);
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error loading friends data", e);
-                    showError("Failed to load friends data");
-                });
     }
 
-    private void sortUsers(List<User> users, String sortField) {
-        Comparator<User> comparator;
-        switch (sortField) {
-            case "hours":
-                comparator = (u1, u2) -> Long.compare(u2.getTotalStudyTime(), u1.getTotalStudyTime());
-                break;
-            case "streak":
-                comparator = (u1, u2) -> Integer.compare(u2.getStreakDays(), u1.getStreakDays());
-                break;
-            case "points":
-            default:
-                comparator = (u1, u2) -> Integer.compare(u2.getPoints(), u1.getPoints());
-                break;
-        }
+    private void renderLeaderboard() {
+        if (getActivity() == null || adapter == null) return;
 
-        Collections.sort(users, comparator);
+        updateLeaderboardUI(friendsCache.getEntries(displayMode, LEADERBOARD_LIMIT));
     }
 
     private void updateLeaderboardUI(List<LeaderboardEntry> entries) {
@@ -222,6 +218,12 @@ public class FriendsLeaderboardFragment extends Fragment implements LeaderboardA
         startActivity(intent);
     }
 
+    private void showError(String message) {
+        if (getActivity() == null) return;
+
+        showEmptyState(message);
+    }
+
     private void showEmptyState(String message) {
         if (getActivity() == null) return;
 
@@ -230,16 +232,4 @@ public class FriendsLeaderboardFragment extends Fragment implements LeaderboardA
         emptyStateText.setText(message);
         progressBar.setVisibility(View.GONE);
     }
-
-    private void showError(String message) {
-        if (getActivity() == null) return;
-
-        showEmptyState(message);
-    }
-
-    @Override
-    public void onResume() {
-        super.onResume();
-        loadFriendsLeaderboardData();
-    }
-}
\ No newline at end of file
+}
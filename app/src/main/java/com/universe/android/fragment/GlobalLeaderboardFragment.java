@@ -18,16 +18,16 @@ import com.google.android.material.button.MaterialButton;
 import com.google.android.material.card.MaterialCardView;
 import com.universe.android.R;
 import com.universe.android.adapter.LeaderboardAdapter;
+import com.universe.android.adapter.SharedViewPool;
 import com.universe.android.model.LeaderboardEntry;
-import com.universe.android.model.User;
+import com.universe.android.repository.LeaderboardRepository;
 import com.universe.android.repository.UserRepository;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class GlobalLeaderboardFragment extends Fragment implements LeaderboardAdapter.OnLeaderboardEntryClickListener {
     private static final String TAG = "GlobalLeaderboard";
-    private static final int LEADERBOARD_LIMIT = 100;
+    private static final int LEADERBOARD_LIMIT = LeaderboardRepository.LEADERBOARD_SIZE;
 
     private RecyclerView leaderboardRecyclerView;
     private ProgressBar progressBar;
@@ -39,6 +39,7 @@ public class GlobalLeaderboardFragment extends Fragment implements LeaderboardAd
 
     private LeaderboardAdapter adapter;
     private UserRepository userRepository;
+    private LeaderboardRepository leaderboardRepository;
     private String displayMode = "points";
 
     public GlobalLeaderboardFragment() {
@@ -60,6 +61,7 @@ public class GlobalLeaderboardFragment extends Fragment implements LeaderboardAd
         }
 
         userRepository = UserRepository.getInstance();
+        leaderboardRepository = LeaderboardRepository.getInstance();
     }
 
     @Override
@@ -84,6 +86,13 @@ public class GlobalLeaderboardFragment extends Fragment implements LeaderboardAd
         leaderboardRecyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
         leaderboardRecyclerView.setAdapter(adapter);
 
+        // Rows come from the pool shared with the friends tab, which is warmed for it in idle time
+        SharedViewPool viewPool = SharedViewPool.of(this);
+        if (viewPool != null) {
+            viewPool.attach(leaderboardRecyclerView);
+            viewPool.prewarm(leaderboardRecyclerView, adapter, LeaderboardAdapter.VIEW_TYPE);
+        }
+
         adapter.setDisplayMode(displayMode);
 
         userRankCard.setVisibility(View.GONE);
@@ -138,26 +147,62 @@ public class GlobalLeaderboardFragment extends Fragment implements LeaderboardAd
                 break;
         }
 
-        userRepository.getGlobalLeaderboard(sortField, LEADERBOARD_LIMIT)
-                .addOnSuccessListener(users -> {
+        // Served from the current-user store, no extra read once the user is loaded
+        userRepository.getCurrentUserData()
+                .addOnSuccessListener(currentUser -> {
+                    String orgId = currentUser != null ? currentUser.getOrganisationId() : null;
+                    if (orgId == null || orgId.isEmpty()) {
+                        loadUnmaterializedLeaderboard(sortField);
+                    } else {
+                        loadMaterializedLeaderboard(orgId, sortField);
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error loading user", e);
+                    showError("Failed to load leaderboard data");
+                });
+    }
+
+    private void loadMaterializedLeaderboard(String orgId, String sortField) {
+        // One packed document per organisation and metric instead of LEADERBOARD_LIMIT user documents
+        leaderboardRepository.getLeaderboard(orgId, sortField)
+                .addOnSuccessListener(entries -> {
                     if (getActivity() == null) return;
 
-                    List<LeaderboardEntry> entries = new ArrayList<>();
                     int userRank = -1;
                     LeaderboardEntry currentUserEntry = null;
 
-                    int rank = 1;
-                    for (User user : users) {
-                        LeaderboardEntry entry = new LeaderboardEntry(user, rank);
-
-                        if (userRepository.getCurrentUserId().equals(user.getUid())) {
-                            userRank = rank;
+                    for (LeaderboardEntry entry : entries) {
+                        if (userRepository.getCurrentUserId().equals(entry.getUserId())) {
+                            userRank = entry.getRank();
                             entry.setCurrentUser(true);
                             currentUserEntry = entry;
                         }
+                    }
 
-                        entries.add(entry);
-                        rank++;
+                    updateLeaderboardUI(entries, userRank, currentUserEntry);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error loading leaderboard", e);
+                    showError("Failed to load leaderboard data");
+                });
+    }
+
+    // Users without an organisation have no materialized board, rank them from the projections directly
+    private void loadUnmaterializedLeaderboard(String sortField) {
+        userRepository.getGlobalLeaderboard(sortField, LEADERBOARD_LIMIT)
+                .addOnSuccessListener(entries -> {
+                    if (getActivity() == null) return;
+
+                    int userRank = -1;
+                    LeaderboardEntry currentUserEntry = null;
+
+                    for (LeaderboardEntry entry : entries) {
+                        if (userRepository.getCurrentUserId().equals(entry.getUserId())) {
+                            userRank = entry.getRank();
+                            entry.setCurrentUser(true);
+                            currentUserEntry = entry;
+                        }
                     }
 
                     updateLeaderboardUI(entries, userRank, currentUserEntry);
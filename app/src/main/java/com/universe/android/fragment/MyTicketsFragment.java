@@ -22,13 +22,19 @@ import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
 import com.universe.android.R;
 import com.universe.android.TicketDetailActivity;
+import com.universe.android.adapter.EventAdapter;
+import com.universe.android.adapter.SharedViewPool;
 import com.universe.android.adapter.TicketAdapter;
 import com.universe.android.model.Event;
 import com.universe.android.model.Ticket;
-import com.universe.android.service.EventService;
+import com.universe.android.repository.EventRepository;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class MyTicketsFragment extends Fragment {
     private static final String TAG = "MyTicketsFragment";
@@ -38,7 +44,8 @@ public class MyTicketsFragment extends Fragment {
     private ProgressBar progressBar;
     private TextView emptyStateText;
     private FirebaseFirestore db;
-    private EventService eventService;
+    private EventRepository eventRepository;
+    private int loadGeneration = 0; // Bumped per load so a slower, older event lookup can't overwrite newer rows
 
     public MyTicketsFragment() {
         // Required empty public constructor
@@ -54,9 +61,9 @@ public class MyTicketsFragment extends Fragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
-        // Initialize Firestore and EventService
+        // Initialize Firestore and the event client
         db = FirebaseFirestore.getInstance();
-        eventService = new EventService(requireContext());
+        eventRepository = EventRepository.getInstance(requireContext());
 
         // Find views
         recyclerView = view.findViewById(R.id.ticketsRecyclerView);
@@ -75,11 +82,20 @@ public class MyTicketsFragment extends Fragment {
 
         recyclerView.setAdapter(adapter);
 
+        // Event rows for the upcoming tab are inflated while the main thread is idle
+        SharedViewPool viewPool = SharedViewPool.of(this);
+        if (viewPool != null) {
+            viewPool.attach(recyclerView);
+            viewPool.prewarm(recyclerView, new EventAdapter(null), EventAdapter.VIEW_TYPE);
+        }
+
         // Load user's tickets
         loadTickets();
     }
 
     private void loadTickets() {
+        int generation = ++loadGeneration;
+
         // Show loading state
         progressBar.setVisibility(View.VISIBLE);
         recyclerView.setVisibility(View.GONE);
@@ -103,7 +119,7 @@ public class MyTicketsFragment extends Fragment {
         ticketsRef.orderBy("purchaseTimestamp", Query.Direction.DESCENDING)
                 .get()
                 .addOnCompleteListener(task -> {
-                    if (getActivity() == null || !isAdded()) return;
+                    if (getActivity() == null || !isAdded() || generation != loadGeneration) return;
 
                     if (task.isSuccessful()) {
                         List<Ticket> tickets = new ArrayList<>();
@@ -162,10 +178,8 @@ public class MyTicketsFragment extends Fragment {
                         // Display tickets immediately with basic info
                         displayTickets(tickets);
 
-                        // Then fetch complete event details for each ticket
-                        for (Ticket ticket : tickets) {
-                            fetchEventDetails(ticket);
-                        }
+                        // Then fetch complete event details for all tickets at once
+                        fetchEventDetails(tickets, generation);
 
                     } else {
                         // Error loading tickets
@@ -176,26 +190,36 @@ public class MyTicketsFragment extends Fragment {
                 });
     }
 
-    private void fetchEventDetails(Ticket ticket) {
-        eventService.getEventById(ticket.getEvent().getId(), new EventService.EventCallback() {
+    // One batch lookup for every ticket's event, served from the event cache when it can be
+    private void fetchEventDetails(List<Ticket> tickets, int generation) {
+        Set<String> eventIds = new HashSet<>();
+        for (Ticket ticket : tickets) {
+            eventIds.add(ticket.getEvent().getId());
+        }
+
+        eventRepository.getEventsByIds(eventIds, new EventRepository.EventCallback() {
             @Override
             public void onSuccess(List<Event> events) {
-                if (getActivity() == null || !isAdded()) return;
+                if (getActivity() == null || !isAdded() || generation != loadGeneration || events.isEmpty()) return;
 
-                if (!events.isEmpty()) {
-                    // Update ticket with full event details
-                    Event event = events.get(0);
-                    ticket.setEvent(event);
+                Map<String, Event> eventsById = new HashMap<>();
+                for (Event event : events) {
+                    eventsById.put(event.getId(), event);
+                }
 
-                    // Refresh adapter to show updated event details
-                    adapter.notifyDataSetChanged();
+                // Hydrated copies rather than in-place edits, so the adapter diffs old rows against new ones
+                List<Ticket> hydrated = new ArrayList<>();
+                for (Ticket ticket : tickets) {
+                    Event event = eventsById.get(ticket.getEvent().getId());
+                    hydrated.add(event != null ? ticket.withEvent(event) : ticket);
                 }
+                adapter.setTickets(hydrated);
             }
 
             @Override
             public void onError(String error) {
                 Log.e(TAG, "Error fetching event details: " + error);
-                // The ticket will still show with basic event info
+                // The tickets will still show with basic event info
             }
         });
     }
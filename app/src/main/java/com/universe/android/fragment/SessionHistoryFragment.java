@@ -18,21 +18,21 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.button.MaterialButton;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.QueryDocumentSnapshot;
 import com.universe.android.R;
 import com.universe.android.SessionDetailsActivity;
 import com.universe.android.StudySessionActivity;
 import com.universe.android.adapter.SessionHistoryAdapter;
 import com.universe.android.model.StudySession;
+import com.universe.android.repository.SessionHistoryPager;
+import com.universe.android.repository.SessionRepository;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 public class SessionHistoryFragment extends Fragment implements SessionHistoryAdapter.OnSessionClickListener {
     private static final String TAG = "SessionHistoryFragment";
+    private static final int PAGE_SIZE = 20;
+    private static final int PREFETCH_DISTANCE = 5;
 
     // UI components
     private RecyclerView recyclerView;
@@ -47,8 +47,9 @@ public class SessionHistoryFragment extends Fragment implements SessionHistoryAd
     private SessionHistoryAdapter adapter;
 
     // Firebase
-    private FirebaseFirestore db;
     private FirebaseAuth auth;
+    private SessionRepository sessionRepository;
+    private SessionHistoryPager pager;
 
     // Stats
     private int totalSessions = 0;
@@ -69,8 +70,8 @@ public class SessionHistoryFragment extends Fragment implements SessionHistoryAd
         super.onViewCreated(view, savedInstanceState);
 
         // Initialize Firebase
-        db = FirebaseFirestore.getInstance();
         auth = FirebaseAuth.getInstance();
+        sessionRepository = SessionRepository.getInstance();
 
         // Initialize views
         initializeViews(view);
@@ -97,8 +98,22 @@ public class SessionHistoryFragment extends Fragment implements SessionHistoryAd
 
     private void setupRecyclerView() {
         adapter = new SessionHistoryAdapter(this);
-        recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(getContext());
+        recyclerView.setLayoutManager(layoutManager);
         recyclerView.setAdapter(adapter);
+
+        // Prefetch the next page before the user reaches the end of the list
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0) return;
+
+                int lastVisible = layoutManager.findLastVisibleItemPosition();
+                if (lastVisible >= adapter.getItemCount() - PREFETCH_DISTANCE) {
+                    loadNextPage();
+                }
+            }
+        });
     }
 
     private void loadSessionHistory() {
@@ -117,108 +132,71 @@ public class SessionHistoryFragment extends Fragment implements SessionHistoryAd
 
         String userId = auth.getCurrentUser().getUid();
 
-        // Create a list to hold all sessions
-        List<StudySession> allSessions = new ArrayList<>();
-
-        // First, get sessions where user is host
-        db.collection("sessions")
-                .whereEqualTo("hostId", userId)
-                .get()
-                .addOnCompleteListener(hostTask -> {
-                    if (hostTask.isSuccessful()) {
-                        for (QueryDocumentSnapshot document : hostTask.getResult()) {
-                            StudySession session = document.toObject(StudySession.class);
-                            allSessions.add(session);
-                        }
-
-                        // Then, get sessions where user is a participant but not the host
-                        db.collection("sessions")
-                                .whereNotEqualTo("hostId", userId)  // To avoid duplicates with the previous query
-                                .get()
-                                .addOnCompleteListener(participantTask -> {
-                                    if (participantTask.isSuccessful()) {
-                                        for (QueryDocumentSnapshot document : participantTask.getResult()) {
-                                            // Check if user is in participants list
-                                            StudySession session = document.toObject(StudySession.class);
-                                            boolean isParticipant = false;
-
-                                            if (session.getParticipants() != null) {
-                                                for (Map<String, String> participant : session.getParticipants()) {
-                                                    if (userId.equals(participant.get("userId"))) {
-                                                        isParticipant = true;
-                                                        break;
-                                                    }
-                                                }
-                                            }
-
-                                            if (isParticipant) {
-                                                allSessions.add(session);
-                                            }
-                                        }
-
-                                        // Process results after both queries are complete
-                                        processSessionResults(allSessions);
-                                    } else {
-                                        // Error loading sessions where user is participant
-                                        Log.e(TAG, "Error getting sessions as participant: ", participantTask.getException());
-                                        // Still process host sessions even if participant query fails
-                                        processSessionResults(allSessions);
-                                    }
-                                });
-
-                        Log.d(TAG, "Host sessions count: " + allSessions.size());
-                    } else {
-                        // Error loading sessions where user is host
-                        Log.e(TAG, "Error getting sessions as host: ", hostTask.getException());
-                        showEmptyState("Couldn't load session history.\nTap to retry.");
-                    }
-                });
-
+        // Start over from the newest session, older pages load as the list scrolls
+        pager = sessionRepository.getUserSessionHistory(userId, PAGE_SIZE);
+        adapter.setSessions(new ArrayList<>());
+        loadNextPage();
+        loadTotals(userId);
     }
 
-    private void processSessionResults(List<StudySession> sessions) {
-        Log.d(TAG, "Processing " + sessions.size() + " sessions");
+    private void loadNextPage() {
+        if (pager == null || pager.isLoading() || !pager.hasMore()) return;
 
-        if (getActivity() == null || !isAdded()) return;
+        SessionHistoryPager requestPager = pager;
+        requestPager.loadNextPage()
+                .addOnSuccessListener(page -> {
+                    // A reload replaced the pager while this page was in flight
+                    if (requestPager != pager || getActivity() == null || !isAdded()) return;
 
-        progressBar.setVisibility(View.GONE);
+                    Log.d(TAG, "Loaded page of " + page.size() + " sessions");
+                    onPageLoaded(page);
+                })
+                .addOnFailureListener(e -> {
+                    if (requestPager != pager || getActivity() == null || !isAdded()) return;
 
-        // Reset stats
-        totalSessions = 0;
-        totalHours = 0;
-        totalPoints = 0;
+                    Log.e(TAG, "Error getting sessions: ", e);
+                    if (adapter.getSessionCount() == 0) {
+                        showEmptyState("Couldn't load session history.\nTap to retry.");
+                    }
+                });
+    }
 
-        if (sessions.isEmpty()) {
-            showEmptyState("You haven't completed any study sessions yet");
-            updateStats();
+    private void onPageLoaded(List<StudySession> page) {
+        progressBar.setVisibility(View.GONE);
+        adapter.addSessions(page);
+
+        if (adapter.getSessionCount() == 0) {
+            if (pager.hasMore()) {
+                // Page was all duplicates from the hostId stream, keep going
+                loadNextPage();
+            } else {
+                showEmptyState("You haven't completed any study sessions yet");
+            }
             return;
         }
 
-        // Accumulate stats
-        for (StudySession session : sessions) {
-            totalSessions++;
-
-            if (session.getDurationSeconds() > 0) {
-                totalHours += session.getDurationSeconds() / 3600.0; // Convert seconds to hours
-            }
+        emptyStateView.setVisibility(View.GONE);
+        recyclerView.setVisibility(View.VISIBLE);
 
-            totalPoints += session.getPointsAwarded();
+        // A short first page may not fill the screen, so scrolling would never trigger a prefetch
+        if (adapter.getSessionCount() < PAGE_SIZE && pager.hasMore()) {
+            loadNextPage();
         }
+    }
 
-        // Sort results by start time (newest first)
-        Collections.sort(sessions, (a, b) -> {
-            if (a.getStartTime() == null) return 1;
-            if (b.getStartTime() == null) return -1;
-            return b.getStartTime().compareTo(a.getStartTime());
-        });
-
-        Log.d(TAG, "Final sessions count: " + sessions.size());
-
-        // Update UI
-        adapter.setSessions(sessions);
-        recyclerView.setVisibility(View.VISIBLE);
-        updateStats();
+    private void loadTotals(String userId) {
+        sessionRepository.getUserSessionTotals(userId)
+                .addOnSuccessListener(totals -> {
+                    if (getActivity() == null || !isAdded()) return;
+
+                    totalSessions = (int) totals.getSessionCount();
+                    totalHours = totals.getDurationSeconds() / 3600.0; // Convert seconds to hours
+                    totalPoints = (int) totals.getPoints();
+                    updateStats();
+                })
+                .addOnFailureListener(e -> Log.e(TAG, "Error getting session totals: ", e));
     }
+
     private void updateStats() {
         sessionsCountView.setText(String.valueOf(totalSessions));
         hoursCountView.setText(String.format("%.1f", totalHours));
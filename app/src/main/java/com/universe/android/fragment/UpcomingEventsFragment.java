@@ -18,17 +18,25 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.universe.android.EventDetailActivity;
 import com.universe.android.R;
 import com.universe.android.adapter.EventAdapter;
-import com.universe.android.model.Event;
-import com.universe.android.service.EventService;
-
-import java.util.List;
+import com.universe.android.adapter.SharedViewPool;
+import com.universe.android.adapter.TicketAdapter;
+import com.universe.android.model.EventPage;
+import com.universe.android.repository.EventRepository;
 
 public class UpcomingEventsFragment extends Fragment {
+    private static final int PAGE_SIZE = 20;
+    private static final int PREFETCH_DISTANCE = 5;
+
     private RecyclerView recyclerView;
     private EventAdapter adapter;
     private ProgressBar progressBar;
     private TextView emptyStateText;
-    private EventService eventService;
+    private EventRepository eventRepository;
+
+    // Paging state; generation changes on every reload so late pages from before it are dropped
+    private String nextPageToken;
+    private boolean loadingPage = false;
+    private int generation = 0;
 
     public UpcomingEventsFragment() {
         // Required empty public constructor
@@ -44,8 +52,7 @@ public class UpcomingEventsFragment extends Fragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
-        // Initialize EventService
-        eventService = new EventService(requireContext());
+        eventRepository = EventRepository.getInstance(requireContext());
 
         // Find views
         recyclerView = view.findViewById(R.id.eventsRecyclerView);
@@ -53,7 +60,21 @@ public class UpcomingEventsFragment extends Fragment {
         emptyStateText = view.findViewById(R.id.emptyStateText);
 
         // Set up RecyclerView
-        recyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(requireContext());
+        recyclerView.setLayoutManager(layoutManager);
+
+        // Prefetch the next page before the user reaches the end of the list
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0) return;
+
+                int lastVisible = layoutManager.findLastVisibleItemPosition();
+                if (lastVisible >= adapter.getItemCount() - PREFETCH_DISTANCE) {
+                    loadNextPage();
+                }
+            }
+        });
 
         adapter = new EventAdapter(event -> {
             // Handle event click - open event detail
@@ -64,6 +85,13 @@ public class UpcomingEventsFragment extends Fragment {
 
         recyclerView.setAdapter(adapter);
 
+        // Ticket rows for the next tab are inflated while the main thread is idle
+        SharedViewPool viewPool = SharedViewPool.of(this);
+        if (viewPool != null) {
+            viewPool.attach(recyclerView);
+            viewPool.prewarm(recyclerView, new TicketAdapter(), TicketAdapter.VIEW_TYPE);
+        }
+
         // Load events from API
         loadEvents();
     }
@@ -74,22 +102,31 @@ public class UpcomingEventsFragment extends Fragment {
         recyclerView.setVisibility(View.GONE);
         emptyStateText.setVisibility(View.GONE);
 
-        // Call our EventService
-        eventService.getUpcomingEvents(new EventService.EventCallback() {
+        int requestGeneration = ++generation;
+        nextPageToken = null;
+        loadingPage = true;
+
+        // Called a second time if the cached first page turns out to be stale
+        eventRepository.getUpcomingEventsPage(null, PAGE_SIZE, new EventRepository.EventPageCallback() {
             @Override
-            public void onSuccess(List<Event> events) {
-                if (getActivity() == null || !isAdded()) return;
+            public void onSuccess(EventPage page) {
+                // A reload started since this request went out
+                if (requestGeneration != generation || getActivity() == null || !isAdded()) return;
+                loadingPage = false;
 
                 // Hide progress bar
                 progressBar.setVisibility(View.GONE);
 
-                if (events.isEmpty()) {
+                // Replaces any pages loaded after a stale copy of this one
+                adapter.setEvents(page.getEvents());
+                nextPageToken = page.hasMore() ? page.getNextPageToken() : null;
+
+                if (page.getEvents().isEmpty()) {
                     // Show empty state
                     emptyStateText.setVisibility(View.VISIBLE);
                     recyclerView.setVisibility(View.GONE);
                 } else {
                     // Show events
-                    adapter.setEvents(events);
                     recyclerView.setVisibility(View.VISIBLE);
                     emptyStateText.setVisibility(View.GONE);
                 }
@@ -97,7 +134,8 @@ public class UpcomingEventsFragment extends Fragment {
 
             @Override
             public void onError(String error) {
-                if (getActivity() == null || !isAdded()) return;
+                if (requestGeneration != generation || getActivity() == null || !isAdded()) return;
+                loadingPage = false;
 
                 // Hide progress bar
                 progressBar.setVisibility(View.GONE);
@@ -114,12 +152,40 @@ public class UpcomingEventsFragment extends Fragment {
         });
     }
 
+    private void loadNextPage() {
+        if (loadingPage || nextPageToken == null) return;
+
+        String pageToken = nextPageToken;
+        int requestGeneration = generation;
+        loadingPage = true;
+
+        eventRepository.getUpcomingEventsPage(pageToken, PAGE_SIZE, new EventRepository.EventPageCallback() {
+            @Override
+            public void onSuccess(EventPage page) {
+                if (requestGeneration != generation) return;
+                loadingPage = false;
+
+                // Dropped if the first page was replaced while this one was in flight
+                if (getActivity() == null || !isAdded() || !pageToken.equals(nextPageToken)) return;
+
+                adapter.addEvents(page.getEvents());
+                nextPageToken = page.hasMore() ? page.getNextPageToken() : null;
+            }
+
+            @Override
+            public void onError(String error) {
+                if (requestGeneration != generation) return;
+                loadingPage = false; // The next scroll retries
+            }
+        });
+    }
+
     @Override
     public void onResume() {
         super.onResume();
         // Refresh events when returning to fragment
-        if (adapter != null && adapter.getItemCount() == 0) {
+        if (adapter != null && adapter.getItemCount() == 0 && !loadingPage) {
             loadEvents();
         }
     }
-}
\ No newline at end of file
+}
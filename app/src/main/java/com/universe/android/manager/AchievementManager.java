@@ -13,6 +13,7 @@ import com.google.firebase.firestore.FirebaseFirestore;
 import com.universe.android.R;
 import com.universe.android.model.Achievement;
 import com.universe.android.model.User;
+import com.universe.android.repository.CurrentUserStore;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -231,6 +232,7 @@ public class AchievementManager {
 
                     // Update local user object
                     user.addAchievement(achievementId);
+                    CurrentUserStore.getInstance().applyAchievement(achievementId);
 
                     // Show achievement notification
                     showAchievementNotification(context, achievement);
@@ -0,0 +1,28 @@
+package com.universe.android.model;
+
+import java.util.List;
+
+/**
+ * One page of the upcoming events list; nextPageToken is null on the last page
+ */
+public class EventPage {
+    private final List<Event> events;
+    private final String nextPageToken;
+
+    public EventPage(List<Event> events, String nextPageToken) {
+        this.events = events;
+        this.nextPageToken = nextPageToken;
+    }
+
+    public List<Event> getEvents() {
+        return events;
+    }
+
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    public boolean hasMore() {
+        return nextPageToken != null && !nextPageToken.isEmpty();
+    }
+}
@@ -9,6 +9,7 @@ public class LeaderboardEntry {
     private String userId;
     private String username;
     private String profileImageBase64;
+    private String avatarHash;
     private int rank;
     private int points;
     private int level;
@@ -26,6 +27,7 @@ public class LeaderboardEntry {
         this.userId = user.getUid();
         this.username = user.getUsername();
         this.profileImageBase64 = user.getProfileImageBase64();
+        this.avatarHash = user.getAvatarHash();
         this.rank = rank;
         this.points = user.getPoints();
         this.level = user.calculateLevel();
@@ -35,6 +37,21 @@ public class LeaderboardEntry {
         this.isCurrentUser = false;
     }
 
+    // Copy with a new rank, for re-ranking cached rows
+    public LeaderboardEntry(LeaderboardEntry other, int rank) {
+        this.userId = other.userId;
+        this.username = other.username;
+        this.profileImageBase64 = other.profileImageBase64;
+        this.avatarHash = other.avatarHash;
+        this.rank = rank;
+        this.points = other.points;
+        this.level = other.level;
+        this.studyTime = other.studyTime;
+        this.streakDays = other.streakDays;
+        this.achievementCount = other.achievementCount;
+        this.isCurrentUser = other.isCurrentUser;
+    }
+
     public String getUserId() {
         return userId;
     }
@@ -59,6 +76,14 @@ public class LeaderboardEntry {
         this.profileImageBase64 = profileImageBase64;
     }
 
+    public String getAvatarHash() {
+        return avatarHash;
+    }
+
+    public void setAvatarHash(String avatarHash) {
+        this.avatarHash = avatarHash;
+    }
+
     public int getRank() {
         return rank;
     }
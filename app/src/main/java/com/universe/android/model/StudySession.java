@@ -1,5 +1,6 @@
 package com.universe.android.model;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -8,6 +9,7 @@ public class StudySession {
     private String id;
     private String hostId;
     private List<Map<String, String>> participants; // Each map contains userId, username, and nfcId
+    private List<String> participantIds; // userIds of all participants, indexed for history queries
     private Date startTime;
     private Date endTime;
     private int durationSeconds;
@@ -27,6 +29,15 @@ public class StudySession {
         this.id = id;
         this.hostId = hostId;
         this.participants = participants;
+        this.participantIds = new ArrayList<>();
+        if (participants != null) {
+            for (Map<String, String> participant : participants) {
+                String userId = participant.get("userId");
+                if (userId != null && !participantIds.contains(userId)) {
+                    participantIds.add(userId);
+                }
+            }
+        }
         this.startTime = startTime;
         this.durationSeconds = durationSeconds;
         this.completed = false;
@@ -57,6 +68,14 @@ public class StudySession {
         this.participants = participants;
     }
 
+    public List<String> getParticipantIds() {
+        return participantIds;
+    }
+
+    public void setParticipantIds(List<String> participantIds) {
+        this.participantIds = participantIds;
+    }
+
     public Date getStartTime() {
         return startTime;
     }
@@ -1,13 +1,8 @@
 package com.universe.android.model;
 
 import android.graphics.Bitmap;
-import android.graphics.Color;
-import android.util.Log;
 
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.MultiFormatWriter;
-import com.google.zxing.WriterException;
-import com.google.zxing.common.BitMatrix;
+import com.universe.android.util.QrCodeUtil;
 
 import java.io.Serializable;
 
@@ -76,6 +71,16 @@ public class Ticket implements Serializable {
         this.pointsPrice = pointsPrice;
     }
 
+    /**
+     * A copy of this ticket pointing at another event, so list adapters can diff old and new rows
+     */
+    public Ticket withEvent(Event event) {
+        Ticket copy = new Ticket(id, event, purchaseDate, verificationCode, isUsed);
+        copy.numberOfTickets = numberOfTickets;
+        copy.pointsPrice = pointsPrice;
+        return copy;
+    }
+
     public int getTotalPointsSpent() {
         return numberOfTickets * pointsPrice;
     }
@@ -86,33 +91,13 @@ public class Ticket implements Serializable {
             return qrCodeBitmap;
         }
 
-        try {
-            // Create JSON-like string with ticket info
-            String qrContent = String.format(
-                    "{\"id\":\"%s\",\"code\":\"%s\",\"event\":\"%s\",\"tickets\":%d}",
-                    id, verificationCode, event.getId(), numberOfTickets
-            );
-
-            // Generate QR code bitmap
-            BitMatrix bitMatrix = new MultiFormatWriter().encode(
-                    qrContent, BarcodeFormat.QR_CODE, width, height);
+        // Compact versioned payload, see QrPayload
+        Bitmap bitmap = QrCodeUtil.generateTicketQrCode(
+                id, verificationCode, event.getId(), numberOfTickets, width, height);
 
-            Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
-
-            for (int x = 0; x < width; x++) {
-                for (int y = 0; y < height; y++) {
-                    bitmap.setPixel(x, y, bitMatrix.get(x, y) ? Color.BLACK : Color.WHITE);
-                }
-            }
-
-            // Cache the bitmap
-            qrCodeBitmap = bitmap;
-            return bitmap;
-
-        } catch (WriterException e) {
-            Log.e("Ticket", "Error generating QR code: " + e.getMessage());
-            return null;
-        }
+        // Cache the bitmap
+        qrCodeBitmap = bitmap;
+        return bitmap;
     }
 
     /**
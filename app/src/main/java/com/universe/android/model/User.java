@@ -16,7 +16,8 @@ public class User {
     private long totalStudyTime; // in minutes
 
     private String nfcId;
-    private String profileImageBase64;
+    private String profileImageBase64; // Legacy inline avatar, replaced by avatarHash
+    private String avatarHash;         // Key into the avatars collection
     private boolean emailVerified;
     private int streakDays;            // Current consecutive study days
     private int maxStreakDays;         // Longest streak achieved
@@ -129,6 +130,14 @@ public class User {
         this.profileImageBase64 = base64;
     }
 
+    public String getAvatarHash() {
+        return avatarHash;
+    }
+
+    public void setAvatarHash(String avatarHash) {
+        this.avatarHash = avatarHash;
+    }
+
     public boolean isEmailVerified() {
         return emailVerified;
     }
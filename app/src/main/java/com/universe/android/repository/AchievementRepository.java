@@ -156,6 +156,7 @@ public class AchievementRepository extends FirebaseRepository {
 
                         // Update local user object
                         user.addAchievement(achievementId);
+                        CurrentUserStore.getInstance().applyAchievement(achievementId);
 
                         // Show notification
                         showAchievementNotification(context, achievement);
@@ -0,0 +1,123 @@
+package com.universe.android.repository;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.Blob;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.WriteBatch;
+import com.universe.android.model.User;
+import com.universe.android.util.NfcUtil;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Content-addressed avatar store: image bytes live in avatars/{sha256} and users only carry the hash.
+ * An avatar document never changes once written, so any locally cached copy is always valid.
+ */
+public class AvatarRepository extends FirebaseRepository {
+    private static final String TAG = "AvatarRepository";
+    static final String COLLECTION_AVATARS = "avatars";
+
+    private static AvatarRepository instance;
+    private final SingleFlight singleFlight;
+
+    private AvatarRepository() {
+        super();
+        singleFlight = new SingleFlight();
+    }
+
+    public static synchronized AvatarRepository getInstance() {
+        if (instance == null) {
+            instance = new AvatarRepository();
+        }
+        return instance;
+    }
+
+    /**
+     * Stores the image and points the user and their leaderboard projection at it, in one batch.
+     * Also drops the legacy inline base64 image from the user document. Packed board rows are
+     * updated once the batch commits.
+     */
+    public Task<String> setUserAvatar(User user, byte[] imageBytes) {
+        String hash;
+        try {
+            hash = hashOf(imageBytes);
+        } catch (NoSuchAlgorithmException e) {
+            return Tasks.forException(e);
+        }
+
+        Map<String, Object> avatar = new HashMap<>();
+        avatar.put("data", Blob.fromBytes(imageBytes));
+        avatar.put("size", imageBytes.length);
+
+        Map<String, Object> userUpdates = new HashMap<>();
+        userUpdates.put("avatarHash", hash);
+        userUpdates.put("profileImageBase64", FieldValue.delete());
+
+        Map<String, Object> projectionUpdate = LeaderboardRepository.projectionUpdate(
+                user.getUid(), user.getUsername(), user.getOrganisationId(), "avatarHash", hash);
+
+        // Same bytes always map to the same document, so re-uploading is harmless
+        WriteBatch batch = db.batch();
+        batch.set(db.collection(COLLECTION_AVATARS).document(hash), avatar);
+        batch.update(db.collection("users").document(user.getUid()), userUpdates);
+        batch.set(db.collection(LeaderboardRepository.COLLECTION_LEADERBOARD_ENTRIES).document(user.getUid()),
+                projectionUpdate, SetOptions.merge());
+
+        return batch.commit().continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+
+            LeaderboardRepository.getInstance().updateIdentity(user.getOrganisationId(), user.getUid(), null, hash);
+            return hash;
+        });
+    }
+
+    /**
+     * Image bytes for a hash, served from the local Firestore cache when present and
+     * from the server only the first time this device sees that hash
+     */
+    public Task<byte[]> getAvatar(String hash) {
+        if (hash == null || hash.isEmpty()) {
+            return Tasks.forException(new IllegalArgumentException("Avatar hash cannot be empty"));
+        }
+
+        DocumentReference avatarRef = db.collection(COLLECTION_AVATARS).document(hash);
+
+        return singleFlight.execute(hash, () -> avatarRef.get(Source.CACHE)
+                .continueWithTask(cacheTask -> {
+                    if (cacheTask.isSuccessful() && cacheTask.getResult().exists()) {
+                        return Tasks.forResult(cacheTask.getResult());
+                    }
+                    return avatarRef.get(Source.SERVER);
+                })
+                .continueWith(task -> {
+                    if (!task.isSuccessful()) {
+                        Log.e(TAG, "Failed to load avatar " + hash, task.getException());
+                        throw task.getException();
+                    }
+
+                    DocumentSnapshot snapshot = task.getResult();
+                    Blob data = snapshot.getBlob("data");
+                    if (data == null) {
+                        throw new IllegalStateException("Avatar not found: " + hash);
+                    }
+                    return data.toBytes();
+                }));
+    }
+
+    static String hashOf(byte[] bytes) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return NfcUtil.bytesToHex(digest.digest(bytes));
+    }
+}
@@ -0,0 +1,234 @@
+package com.universe.android.repository;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.universe.android.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Process-wide store for the signed-in user's document.
+ * Backed by a single snapshot listener so screens read the last-known user
+ * synchronously instead of issuing their own document reads.
+ */
+public class CurrentUserStore extends FirebaseRepository {
+    private static final String TAG = "CurrentUserStore";
+
+    private static CurrentUserStore instance;
+
+    private final List<OnUserChangedListener> listeners = new CopyOnWriteArrayList<>();
+    private final List<TaskCompletionSource<User>> pendingReads = new ArrayList<>();
+
+    private ListenerRegistration registration;
+    private String listeningUid;
+    private User currentUser;
+    private boolean resolved = false; // A snapshot has arrived, so a null currentUser means there is no profile
+
+    private CurrentUserStore() {
+        super();
+    }
+
+    public static synchronized CurrentUserStore getInstance() {
+        if (instance == null) {
+            instance = new CurrentUserStore();
+        }
+        return instance;
+    }
+
+    public interface OnUserChangedListener {
+        void onUserChanged(User user);
+    }
+
+    /**
+     * Last-known user, or null if the first snapshot has not arrived yet or there is no profile document
+     */
+    public synchronized User getCachedUser() {
+        ensureListening();
+        return currentUser;
+    }
+
+    /**
+     * Resolves immediately from memory once the listener has delivered a snapshot,
+     * otherwise waits for the first one instead of issuing a separate read.
+     * Resolves to null when the signed-in account has no profile document.
+     */
+    public synchronized Task<User> getUser() {
+        if (!isLoggedIn()) return null;
+
+        ensureListening();
+        if (resolved) {
+            return Tasks.forResult(currentUser);
+        }
+
+        TaskCompletionSource<User> source = new TaskCompletionSource<>();
+        pendingReads.add(source);
+        return source.getTask();
+    }
+
+    /**
+     * Registers a listener and replays the last-known user to it straight away
+     */
+    public void addListener(OnUserChangedListener listener) {
+        listeners.add(listener);
+
+        User user = getCachedUser();
+        if (user != null) {
+            listener.onUserChanged(user);
+        }
+    }
+
+    public void removeListener(OnUserChangedListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Write-through helpers: apply a mutation locally right after issuing the Firestore write,
+    // the snapshot listener reconciles with the server value afterwards
+    public void applyUpdate(Consumer<User> mutation) {
+        User user;
+        synchronized (this) {
+            if (currentUser == null) return;
+            mutation.accept(currentUser);
+            user = currentUser;
+        }
+        notifyListeners(user);
+    }
+
+    public void applyPointsDelta(int delta) {
+        applyUpdate(user -> user.setPoints(user.getPoints() + delta));
+    }
+
+    public void applyFriendAdded(String friendId) {
+        applyUpdate(user -> user.addFriend(friendId));
+    }
+
+    public void applyFriendRemoved(String friendId) {
+        applyUpdate(user -> {
+            if (user.getFriends() != null) {
+                user.getFriends().remove(friendId);
+            }
+        });
+    }
+
+    public void applyAchievement(String achievementId) {
+        applyUpdate(user -> user.addAchievement(achievementId));
+    }
+
+    public synchronized void clear() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+        listeningUid = null;
+        currentUser = null;
+        resolved = false;
+        failPendingReads(new IllegalStateException("User signed out"));
+    }
+
+    private synchronized void ensureListening() {
+        String uid = getCurrentUserId();
+        if (uid == null) {
+            if (listeningUid != null) {
+                clear();
+            }
+            return;
+        }
+
+        if (uid.equals(listeningUid) && registration != null) {
+            return;
+        }
+
+        // Different account signed in, drop the previous user's state
+        if (registration != null) {
+            registration.remove();
+        }
+        currentUser = null;
+        resolved = false;
+        listeningUid = uid;
+
+        registration = db.collection("users")
+                .document(uid)
+                .addSnapshotListener((snapshot, e) -> {
+                    if (e != null) {
+                        Log.e(TAG, "Listen failed", e);
+                        onSnapshotError(uid, e);
+                        return;
+                    }
+
+                    if (snapshot == null) return;
+
+                    if (snapshot.exists()) {
+                        onSnapshot(uid, snapshot.toObject(User.class));
+                    } else {
+                        onMissingProfile(uid);
+                    }
+                });
+    }
+
+    private void onSnapshot(String uid, User user) {
+        if (user == null) return;
+        if (user.getUid() == null) {
+            user.setUid(uid); // Documents written before uid was stored in them
+        }
+
+        List<TaskCompletionSource<User>> waiting;
+        synchronized (this) {
+            if (!uid.equals(listeningUid)) return;
+            currentUser = user;
+            resolved = true;
+            waiting = new ArrayList<>(pendingReads);
+            pendingReads.clear();
+        }
+
+        for (TaskCompletionSource<User> source : waiting) {
+            source.trySetResult(user);
+        }
+        notifyListeners(user);
+    }
+
+    // No profile document (not created yet, or deleted): waiters get null, as a direct read would give them
+    private void onMissingProfile(String uid) {
+        List<TaskCompletionSource<User>> waiting;
+        synchronized (this) {
+            if (!uid.equals(listeningUid)) return;
+            currentUser = null;
+            resolved = true;
+            waiting = new ArrayList<>(pendingReads);
+            pendingReads.clear();
+        }
+
+        for (TaskCompletionSource<User> source : waiting) {
+            source.trySetResult(null);
+        }
+    }
+
+    private synchronized void onSnapshotError(String uid, Exception e) {
+        if (!uid.equals(listeningUid)) return;
+
+        // Let the next caller re-attach instead of waiting on a dead listener
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+        failPendingReads(e);
+    }
+
+    private void failPendingReads(Exception e) {
+        for (TaskCompletionSource<User> source : pendingReads) {
+            source.trySetException(e);
+        }
+        pendingReads.clear();
+    }
+
+    private void notifyListeners(User user) {
+        for (OnUserChangedListener listener : listeners) {
+            listener.onUserChanged(user);
+        }
+    }
+}
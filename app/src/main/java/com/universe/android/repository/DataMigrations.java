@@ -0,0 +1,188 @@
+package com.universe.android.repository;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+import com.universe.android.model.User;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One-off backfills for collections derived from existing documents. Each migration pages through
+ * its source collection in document id order, stages idempotent writes per page and records
+ * migrations/{name} once the last page commits, so later runs (from any client) stop at that read.
+ * Two clients racing through the same migration only write the same derived values twice.
+ */
+public class DataMigrations extends FirebaseRepository {
+    private static final String TAG = "DataMigrations";
+    static final String COLLECTION_MIGRATIONS = "migrations";
+
+    static final String NFC_TAGS = "nfc_tags_from_users";
+    static final String LEADERBOARD_ENTRIES = "leaderboard_entries_from_users";
+    static final String SESSION_PARTICIPANT_IDS = "session_participant_ids";
+
+    private static final int PAGE_SIZE = 200; // Stagers write at most two documents per source document
+
+    private static DataMigrations instance;
+    private final SingleFlight singleFlight;
+    private final Set<String> completed = new HashSet<>();
+
+    private DataMigrations() {
+        super();
+        singleFlight = new SingleFlight();
+    }
+
+    public static synchronized DataMigrations getInstance() {
+        if (instance == null) {
+            instance = new DataMigrations();
+        }
+        return instance;
+    }
+
+    interface Stager {
+        void stage(WriteBatch batch, DocumentSnapshot source);
+    }
+
+    /**
+     * nfc_tags/{nfcId} for every user with a registered tag, for tags registered before the roster existed
+     */
+    public Task<Void> backfillNfcTags() {
+        return ensure(NFC_TAGS, db.collection("users"), (batch, user) -> {
+            String nfcId = user.getString("nfcId");
+            if (nfcId == null || nfcId.isEmpty()) return;
+
+            batch.set(db.collection(NfcRoster.COLLECTION_NFC_TAGS).document(nfcId), UserRepository.nfcTagEntry(
+                    user.getId(), user.getString("username"), user.getString("organisationId")));
+        });
+    }
+
+    /**
+     * leaderboard_entries/{uid} for every user, so accounts that have not signed in since the projection
+     * was introduced still rank. Values come from the user document, which every score write also updates.
+     */
+    public Task<Void> backfillLeaderboardEntries() {
+        return ensure(LEADERBOARD_ENTRIES, db.collection("users"), (batch, document) -> {
+            User user = document.toObject(User.class);
+            if (user == null || user.getUsername() == null) return;
+            user.setUid(document.getId());
+
+            // Merged, so an avatar hash already on the projection survives a user document without one
+            Map<String, Object> projection = LeaderboardRepository.projectionOf(user);
+            if (user.getAvatarHash() == null) {
+                projection.remove("avatarHash");
+            }
+            batch.set(db.collection(LeaderboardRepository.COLLECTION_LEADERBOARD_ENTRIES).document(document.getId()),
+                    projection, SetOptions.merge());
+        });
+    }
+
+    /**
+     * participantIds on every session, derived from participants[].userId, for sessions joined
+     * before membership was indexed. Union only, so ids added by later joins are kept.
+     */
+    public Task<Void> backfillSessionParticipantIds() {
+        return ensure(SESSION_PARTICIPANT_IDS, db.collection(SessionRepository.COLLECTION_SESSIONS), (batch, session) -> {
+            Object participants = session.get("participants");
+            if (!(participants instanceof List)) return;
+
+            Set<Object> userIds = new LinkedHashSet<>();
+            for (Object participant : (List<?>) participants) {
+                if (!(participant instanceof Map)) continue;
+
+                Object userId = ((Map<?, ?>) participant).get("userId");
+                if (userId instanceof String && !((String) userId).isEmpty()) {
+                    userIds.add(userId);
+                }
+            }
+
+            Object indexed = session.get("participantIds");
+            if (indexed instanceof List) {
+                userIds.removeAll((List<?>) indexed);
+            }
+            if (!userIds.isEmpty()) {
+                batch.update(session.getReference(), "participantIds", FieldValue.arrayUnion(userIds.toArray()));
+            }
+        });
+    }
+
+    // Runs the migration unless it is recorded as done; concurrent callers share one run
+    Task<Void> ensure(String name, Query source, Stager stager) {
+        synchronized (completed) {
+            if (completed.contains(name)) {
+                return Tasks.forResult(null);
+            }
+        }
+
+        DocumentReference markerRef = db.collection(COLLECTION_MIGRATIONS).document(name);
+
+        return singleFlight.execute("migration:" + name, () -> markerRef.get().continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                return Tasks.forException(task.getException());
+            }
+            if (task.getResult().exists()) {
+                return Tasks.forResult(null);
+            }
+
+            Log.d(TAG, "Running migration " + name);
+            return migratePage(source, stager, null).continueWithTask(done -> {
+                if (!done.isSuccessful()) {
+                    return Tasks.forException(done.getException());
+                }
+
+                Map<String, Object> marker = new HashMap<>();
+                marker.put("completedAt", FieldValue.serverTimestamp());
+                return markerRef.set(marker);
+            });
+        }).addOnSuccessListener(aVoid -> {
+            synchronized (completed) {
+                completed.add(name);
+            }
+        }).addOnFailureListener(e -> Log.e(TAG, "Migration " + name + " failed", e)));
+    }
+
+    private Task<Void> migratePage(Query source, Stager stager, DocumentSnapshot cursor) {
+        Query page = source.orderBy(FieldPath.documentId()).limit(PAGE_SIZE);
+        if (cursor != null) {
+            page = page.startAfter(cursor);
+        }
+
+        return page.get().continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                return Tasks.forException(task.getException());
+            }
+
+            QuerySnapshot snapshot = task.getResult();
+            if (snapshot.isEmpty()) {
+                return Tasks.forResult(null);
+            }
+
+            WriteBatch batch = db.batch();
+            for (DocumentSnapshot document : snapshot.getDocuments()) {
+                stager.stage(batch, document);
+            }
+
+            DocumentSnapshot last = snapshot.getDocuments().get(snapshot.size() - 1);
+            boolean lastPage = snapshot.size() < PAGE_SIZE;
+            return batch.commit().continueWithTask(commit -> {
+                if (!commit.isSuccessful()) {
+                    return Tasks.forException(commit.getException());
+                }
+                return lastPage ? Tasks.forResult(null) : migratePage(source, stager, last);
+            });
+        });
+    }
+}
@@ -1,52 +1,67 @@
 package com.universe.android.repository;
 
 import android.content.Context;
+import android.net.Uri;
 import android.util.Log;
+import android.util.LruCache;
 
 import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.ParseError;
 import com.android.volley.Request;
-import com.android.volley.RequestQueue;
 import com.android.volley.Response;
 import com.android.volley.VolleyError;
-import com.android.volley.toolbox.JsonArrayRequest;
 import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.WriteBatch;
 import com.universe.android.R;
 import com.universe.android.model.Event;
+import com.universe.android.model.EventPage;
 import com.universe.android.model.Ticket;
+import com.universe.android.service.CachedGetRequest;
+import com.universe.android.service.EventJsonParser;
+import com.universe.android.service.ParsedGetRequest;
+import com.universe.android.service.NetworkClient;
 
-import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * The app's one event client: events come from the API through the shared NetworkClient,
+ * tickets are kept in the user's Firestore subcollection
+ */
 public class EventRepository extends FirebaseRepository {
     private static final String TAG = "EventRepository";
-    private static final String DOCKER_IP = "172.21.141.161";
-    private static final String API_PORT = "8080";
-    private static final String API_BASE_URL = "http://" + DOCKER_IP + ":" + API_PORT + "/api";
+    private static final String API_BASE_URL = NetworkClient.API_BASE_URL;
+
+    private static final int EVENT_CACHE_SIZE = 500;
+    private static final long EVENT_CACHE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final int MAX_IDS_PER_REQUEST = 50; // Keeps /events?ids= URLs well under server limits
 
     private static EventRepository instance;
-    private final RequestQueue requestQueue;
-    private final Context context;
+    private final NetworkClient networkClient;
+    private final LruCache<String, CachedEvent> eventCache; // Event id -> last fetched copy
 
     private EventRepository(Context context) {
         super();
-        this.context = context.getApplicationContext();
-        this.requestQueue = Volley.newRequestQueue(this.context);
+        this.networkClient = NetworkClient.getInstance(context);
+        this.eventCache = new LruCache<>(EVENT_CACHE_SIZE);
     }
 
     public static synchronized EventRepository getInstance(Context context) {
@@ -61,90 +76,206 @@ public class EventRepository extends FirebaseRepository {
         void onError(String error);
     }
 
+    public interface EventPageCallback {
+        void onSuccess(EventPage page);
+        void onError(String error);
+    }
+
     public interface BookingCallback {
         void onSuccess(Ticket ticket);
         void onError(String error);
     }
 
-    public void getUpcomingEvents(final EventCallback callback) {
-        String url = API_BASE_URL + "/events";
+    /**
+     * One page of upcoming events; pass null for the first page, then each page's nextPageToken.
+     * The first page is served from the HTTP cache when there is a copy, so it may be delivered twice
+     * (cached, then revalidated). Later pages always come from the server.
+     * Responses are parsed into events on the network thread, not here.
+     */
+    public void getUpcomingEventsPage(String pageToken, int pageSize, final EventPageCallback callback) {
+        String url = API_BASE_URL + "/events?pageSize=" + pageSize;
+        if (pageToken != null) {
+            url += "&pageToken=" + Uri.encode(pageToken);
+        }
+
+        Response.ErrorListener errorListener = error -> {
+            Log.e(TAG, "Error fetching events: " +
+                    (error.getMessage() != null ? error.getMessage() : "Unknown error"), error);
+            callback.onError(error instanceof ParseError
+                    ? "Error parsing event data"
+                    : "Error connecting to event service");
+        };
+
+        Response.Listener<EventPage> listener = page -> {
+            cacheEvents(page.getEvents());
+            callback.onSuccess(page);
+        };
+
+        ParsedGetRequest<EventPage> request;
+        if (pageToken == null) {
+            request = new CachedGetRequest<>(url, EventJsonParser::parseEventPage, listener, errorListener);
+        } else {
+            request = new ParsedGetRequest<>(url, EventJsonParser::parseEventPage, listener, errorListener);
+        }
+
+        networkClient.add(request);
+    }
+
+    public void getEventById(String eventId, final EventCallback callback) {
+        String url = API_BASE_URL + "/events/" + eventId;
 
-        JsonArrayRequest request = new JsonArrayRequest(
-                Request.Method.GET,
+        ParsedGetRequest<Event> request = new ParsedGetRequest<>(
                 url,
-                null,
-                new Response.Listener<JSONArray>() {
-                    @Override
-                    public void onResponse(JSONArray response) {
-                        try {
-                            List<Event> events = parseEventList(response);
-                            callback.onSuccess(events);
-                        } catch (JSONException e) {
-                            Log.e(TAG, "Error parsing events: " + e.getMessage(), e);
-                            callback.onError("Error parsing event data");
-                        }
-                    }
+                EventJsonParser::parseEvent,
+                event -> {
+                    cacheEvent(event);
+
+                    List<Event> events = new ArrayList<>();
+                    events.add(event);
+                    callback.onSuccess(events);
                 },
                 new Response.ErrorListener() {
                     @Override
                     public void onErrorResponse(VolleyError error) {
-                        Log.e(TAG, "Error fetching events: " +
+                        Log.e(TAG, "Error fetching event: " +
                                 (error.getMessage() != null ? error.getMessage() : "Unknown error"), error);
-                        callback.onError("Error connecting to event service");
+                        callback.onError(error instanceof ParseError
+                                ? "Error parsing event details"
+                                : "Error fetching event details");
                     }
                 }
         );
 
-        request.setRetryPolicy(new DefaultRetryPolicy(
-                15000,
-                1,
-                DefaultRetryPolicy.DEFAULT_BACKOFF_MULT
-        ));
+        networkClient.add(request);
+    }
+
+    /**
+     * Events for a set of ids, in no particular order; ids the server doesn't know are left out.
+     * Ids fetched in the last few minutes (from pages, details or earlier lookups) come from memory,
+     * the rest with /events?ids= requests of at most MAX_IDS_PER_REQUEST ids each, issued together and
+     * merged before the callback. A fully cached set makes no request at all.
+     */
+    public void getEventsByIds(Collection<String> eventIds, final EventCallback callback) {
+        List<Event> events = new ArrayList<>();
+        Set<String> missingIds = new LinkedHashSet<>();
 
-        requestQueue.add(request);
+        for (String eventId : new LinkedHashSet<>(eventIds)) {
+            if (eventId == null || eventId.isEmpty()) continue;
+
+            Event cached = getCachedEvent(eventId);
+            if (cached != null) {
+                events.add(cached);
+            } else {
+                missingIds.add(eventId);
+            }
+        }
+
+        if (missingIds.isEmpty()) {
+            callback.onSuccess(events);
+            return;
+        }
+
+        List<String> pending = new ArrayList<>(missingIds);
+        int[] remaining = {(pending.size() + MAX_IDS_PER_REQUEST - 1) / MAX_IDS_PER_REQUEST};
+        boolean[] failed = {false};
+
+        // Chunks go out together; Volley delivers on the main thread, so the counters need no locking
+        for (int start = 0; start < pending.size(); start += MAX_IDS_PER_REQUEST) {
+            List<String> chunk = pending.subList(start, Math.min(start + MAX_IDS_PER_REQUEST, pending.size()));
+
+            fetchEventChunk(new LinkedHashSet<>(chunk), new EventCallback() {
+                @Override
+                public void onSuccess(List<Event> fetched) {
+                    if (failed[0]) return;
+
+                    events.addAll(fetched);
+                    if (--remaining[0] == 0) {
+                        callback.onSuccess(events);
+                    }
+                }
+
+                @Override
+                public void onError(String error) {
+                    if (failed[0]) return;
+
+                    failed[0] = true;
+                    callback.onError(error);
+                }
+            });
+        }
     }
 
-    public void getEventById(String eventId, final EventCallback callback) {
-        String url = API_BASE_URL + "/events/" + eventId;
+    // One /events?ids= request; only events in chunk are kept and cached
+    private void fetchEventChunk(Set<String> chunk, final EventCallback callback) {
+        StringBuilder ids = new StringBuilder();
+        for (String eventId : chunk) {
+            if (ids.length() > 0) ids.append(',');
+            ids.append(Uri.encode(eventId));
+        }
+        String url = API_BASE_URL + "/events?ids=" + ids;
 
-        JsonObjectRequest request = new JsonObjectRequest(
-                Request.Method.GET,
+        ParsedGetRequest<List<Event>> request = new ParsedGetRequest<>(
                 url,
-                null,
-                new Response.Listener<JSONObject>() {
-                    @Override
-                    public void onResponse(JSONObject response) {
-                        try {
-                            Event event = parseEvent(response);
-                            List<Event> events = new ArrayList<>();
+                EventJsonParser::parseEventList,
+                fetched -> {
+                    List<Event> events = new ArrayList<>();
+                    for (Event event : fetched) {
+                        // A server without ids filtering answers with the whole catalog
+                        if (chunk.contains(event.getId())) {
+                            cacheEvent(event);
                             events.add(event);
-                            callback.onSuccess(events);
-                        } catch (JSONException e) {
-                            Log.e(TAG, "Error parsing event: " + e.getMessage(), e);
-                            callback.onError("Error parsing event details");
                         }
                     }
+                    callback.onSuccess(events);
                 },
                 new Response.ErrorListener() {
                     @Override
                     public void onErrorResponse(VolleyError error) {
-                        Log.e(TAG, "Error fetching event: " +
+                        Log.e(TAG, "Error fetching events by id: " +
                                 (error.getMessage() != null ? error.getMessage() : "Unknown error"), error);
-                        callback.onError("Error fetching event details");
+                        callback.onError(error instanceof ParseError
+                                ? "Error parsing event details"
+                                : "Error fetching event details");
                     }
                 }
         );
 
-        requestQueue.add(request);
+        networkClient.add(request);
+    }
+
+    private Event getCachedEvent(String eventId) {
+        CachedEvent cached = eventCache.get(eventId);
+        if (cached == null) return null;
+
+        if (System.currentTimeMillis() - cached.fetchedAt >= EVENT_CACHE_TTL_MILLIS) {
+            eventCache.remove(eventId);
+            return null;
+        }
+        return cached.event;
+    }
+
+    private void cacheEvent(Event event) {
+        eventCache.put(event.getId(), new CachedEvent(event, System.currentTimeMillis()));
+    }
+
+    private void cacheEvents(List<Event> events) {
+        for (Event event : events) {
+            cacheEvent(event);
+        }
     }
 
-    public void bookEvent(String eventId, int numberOfTickets, final BookingCallback callback) {
+    /**
+     * Books tickets for an event the caller already has loaded. Once the API confirms the booking,
+     * the ticket and the points debit are written in one Firestore batch, and the callback reports
+     * success when that batch commits.
+     */
+    public void bookEvent(Event event, int numberOfTickets, final BookingCallback callback) {
         if (!isLoggedIn()) {
             callback.onError("User not logged in");
             return;
         }
 
-        String url = API_BASE_URL + "/events/" + eventId + "/book";
+        String url = API_BASE_URL + "/events/" + event.getId() + "/book";
 
         try {
             JSONObject requestBody = new JSONObject();
@@ -167,39 +298,21 @@ public class EventRepository extends FirebaseRepository {
                                     ? response.getString("verificationCode")
                                     : String.format("%06d", (int) (Math.random() * 1000000));
 
-                            getEventById(eventId, new EventCallback() {
-                                @Override
-                                public void onSuccess(List<Event> events) {
-                                    if (events.size() > 0) {
-                                        Event event = events.get(0);
-
-                                        SimpleDateFormat sdf = new SimpleDateFormat("MMMM d, yyyy", Locale.US);
-                                        String purchaseDate = sdf.format(new Date());
-
-                                        Ticket ticket = new Ticket(
-                                                bookingId,
-                                                event,
-                                                purchaseDate,
-                                                verificationCode,
-                                                false
-                                        );
-
-                                        ticket.setNumberOfTickets(numberOfTickets);
-                                        ticket.setPointsPrice(event.getPointsPrice());
-
-                                        saveTicketToFirestore(ticket, numberOfTickets, event.getPointsPrice(), () -> {
-                                            callback.onSuccess(ticket);
-                                        });
-                                    } else {
-                                        callback.onError("Could not find event details");
-                                    }
-                                }
-
-                                @Override
-                                public void onError(String error) {
-                                    callback.onError("Error retrieving event: " + error);
-                                }
-                            });
+                            SimpleDateFormat sdf = new SimpleDateFormat("MMMM d, yyyy", Locale.US);
+                            String purchaseDate = sdf.format(new Date());
+
+                            Ticket ticket = new Ticket(
+                                    bookingId,
+                                    event,
+                                    purchaseDate,
+                                    verificationCode,
+                                    false
+                            );
+
+                            ticket.setNumberOfTickets(numberOfTickets);
+                            ticket.setPointsPrice(event.getPointsPrice());
+
+                            saveBooking(ticket, callback);
                         } catch (JSONException e) {
                             Log.e(TAG, "Error parsing booking response: " + e.getMessage(), e);
                             callback.onError("Error processing booking");
@@ -223,7 +336,7 @@ public class EventRepository extends FirebaseRepository {
                     DefaultRetryPolicy.DEFAULT_BACKOFF_MULT
             ));
 
-            requestQueue.add(request);
+            networkClient.add(request);
 
         } catch (JSONException e) {
             Log.e(TAG, "Error creating booking request: " + e.getMessage(), e);
@@ -231,12 +344,19 @@ public class EventRepository extends FirebaseRepository {
         }
     }
 
-    private void saveTicketToFirestore(Ticket ticket, int numberOfTickets, int pointsPrice, Runnable onComplete) {
+    // Ticket and points debit commit together, so a booking is never saved without being paid for
+    private void saveBooking(Ticket ticket, BookingCallback callback) {
         if (!isLoggedIn()) {
             Log.e(TAG, "No user logged in, cannot save ticket");
+            callback.onError("User not logged in");
             return;
         }
 
+        String userId = getCurrentUserId();
+        int numberOfTickets = ticket.getNumberOfTickets();
+        int pointsPrice = ticket.getPointsPrice();
+        int totalCost = numberOfTickets * pointsPrice;
+
         Map<String, Object> ticketData = new HashMap<>();
         ticketData.put("eventId", ticket.getEvent().getId());
         ticketData.put("purchaseDate", ticket.getPurchaseDate());
@@ -244,7 +364,7 @@ public class EventRepository extends FirebaseRepository {
         ticketData.put("used", ticket.isUsed());
         ticketData.put("numberOfTickets", numberOfTickets);
         ticketData.put("pointsPrice", pointsPrice);
-        ticketData.put("totalPointsSpent", numberOfTickets * pointsPrice);
+        ticketData.put("totalPointsSpent", totalCost);
         ticketData.put("purchaseTimestamp", new Date());
 
         // Add event details for quick access without requiring a join
@@ -254,19 +374,30 @@ public class EventRepository extends FirebaseRepository {
         ticketData.put("eventLocation", ticket.getEvent().getLocation());
         ticketData.put("eventAddress", ticket.getEvent().getAddress());
 
-        db.collection("users")
-                .document(getCurrentUserId())
-                .collection("tickets")
-                .document(ticket.getId())
-                .set(ticketData)
+        // Resolved from the current-user store; the projection update needs the user's name and org
+        UserRepository userRepository = UserRepository.getInstance();
+        userRepository.getCurrentUserData()
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful() || task.getResult() == null) {
+                        return Tasks.forException(new IllegalStateException("Failed to get user data"));
+                    }
+
+                    WriteBatch batch = db.batch();
+                    batch.set(db.collection("users")
+                            .document(userId)
+                            .collection("tickets")
+                            .document(ticket.getId()), ticketData);
+                    userRepository.stagePointsDelta(batch, task.getResult(), -totalCost);
+                    return batch.commit();
+                })
                 .addOnSuccessListener(aVoid -> {
                     Log.d(TAG, "Ticket saved to Firestore");
-                    if (onComplete != null) {
-                        onComplete.run();
-                    }
+                    userRepository.onPointsDeltaCommitted(userId, -totalCost);
+                    callback.onSuccess(ticket);
                 })
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Error saving ticket: " + e.getMessage());
+                    callback.onError("Error saving ticket");
                 });
     }
 
@@ -346,67 +477,13 @@ public class EventRepository extends FirebaseRepository {
         return ticketRef.update("used", true);
     }
 
-    private List<Event> parseEventList(JSONArray jsonArray) throws JSONException {
-        List<Event> events = new ArrayList<>();
+    private static class CachedEvent {
+        final Event event;
+        final long fetchedAt;
 
-        for (int i = 0; i < jsonArray.length(); i++) {
-            JSONObject eventJson = jsonArray.getJSONObject(i);
-            events.add(parseEvent(eventJson));
+        CachedEvent(Event event, long fetchedAt) {
+            this.event = event;
+            this.fetchedAt = fetchedAt;
         }
-
-        return events;
-    }
-
-    private Event parseEvent(JSONObject eventJson) throws JSONException {
-        String id = eventJson.getString("eventId");
-        String title = eventJson.getString("eventName");
-
-        String description = eventJson.has("description") ?
-                eventJson.getString("description") :
-                "No description available";
-
-        String dateTimeStr = eventJson.getString("eventDateTime");
-        SimpleDateFormat apiFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
-        SimpleDateFormat displayDateFormat = new SimpleDateFormat("MMMM d, yyyy", Locale.US);
-        SimpleDateFormat displayTimeFormat = new SimpleDateFormat("h:mm a", Locale.US);
-
-        String date = "";
-        String time = "";
-        try {
-            Date dateObj = apiFormat.parse(dateTimeStr);
-            date = displayDateFormat.format(dateObj);
-            time = displayTimeFormat.format(dateObj);
-        } catch (Exception e) {
-            Log.e(TAG, "Error parsing date: " + e.getMessage(), e);
-            date = dateTimeStr;
-        }
-
-        JSONObject venueJson = eventJson.has("venue") ? eventJson.getJSONObject("venue") : null;
-        String location = venueJson != null ? venueJson.getString("name") : "TBD";
-        String address = venueJson != null ? venueJson.getString("address") : "Address unavailable";
-
-        double latitude = venueJson != null && venueJson.has("latitude") ?
-                venueJson.getDouble("latitude") : 0.0;
-        double longitude = venueJson != null && venueJson.has("longitude") ?
-                venueJson.getDouble("longitude") : 0.0;
-
-        int pointsPrice = eventJson.has("ticketPrice") ?
-                (int) eventJson.getDouble("ticketPrice") :
-                500;
-
-        int availableTickets = eventJson.has("availableTickets") ?
-                eventJson.getInt("availableTickets") :
-                10;
-
-        Event event = new Event(
-                id, title, description, date, time, location, address,
-                latitude, longitude, pointsPrice, availableTickets
-        );
-
-        if (eventJson.has("organizer")) {
-            event.setOrganizer(eventJson.getString("organizer"));
-        }
-
-        return event;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,115 @@
+package com.universe.android.repository;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * Runs a whereIn query over an id set of any size by splitting it into
+ * Firestore-sized chunks that are issued concurrently, then concatenates the chunk results.
+ * Results kept per chunk can be ranked with mergeTopN.
+ */
+class FanOutQuery {
+    static final int MAX_WHERE_IN = 30; // Firestore limit on whereIn values
+
+    private FanOutQuery() {
+    }
+
+    /**
+     * Fetches every document whose field is in values, in no particular order
+     */
+    static <T> Task<List<T>> fetchAll(Query base, FieldPath field, Collection<String> values,
+                                      Function<DocumentSnapshot, T> mapper) {
+        return fetchRuns(base, field, values, mapper).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+
+            List<T> all = new ArrayList<>();
+            for (List<T> run : task.getResult()) {
+                all.addAll(run);
+            }
+            return all;
+        });
+    }
+
+    // One result list per chunk
+    private static <T> Task<List<List<T>>> fetchRuns(Query base, FieldPath field, Collection<String> values,
+                                                     Function<DocumentSnapshot, T> mapper) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(values));
+        if (distinct.isEmpty()) {
+            return Tasks.forResult(new ArrayList<>());
+        }
+
+        List<Task<List<T>>> chunks = new ArrayList<>();
+        for (int start = 0; start < distinct.size(); start += MAX_WHERE_IN) {
+            List<String> chunk = distinct.subList(start, Math.min(start + MAX_WHERE_IN, distinct.size()));
+            chunks.add(base.whereIn(field, new ArrayList<>(chunk)).get().continueWith(task -> {
+                if (!task.isSuccessful()) {
+                    throw task.getException();
+                }
+
+                List<T> run = new ArrayList<>();
+                for (DocumentSnapshot document : task.getResult()) {
+                    T item = mapper.apply(document);
+                    if (item != null) {
+                        run.add(item);
+                    }
+                }
+                return run;
+            }));
+        }
+
+        return Tasks.whenAllSuccess(chunks).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+
+            List<List<T>> runs = new ArrayList<>();
+            for (Object run : task.getResult()) {
+                @SuppressWarnings("unchecked")
+                List<T> typed = (List<T>) run;
+                runs.add(typed);
+            }
+            return runs;
+        });
+    }
+
+    /**
+     * The first limit items across runs that are each already sorted by order, via a k-way heap merge
+     * that stops as soon as limit items are out instead of sorting everything
+     */
+    static <T> List<T> mergeTopN(List<List<T>> sortedRuns, Comparator<T> order, int limit) {
+        // Heap holds the head of each run as {runIndex, positionInRun}
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, sortedRuns.size()),
+                (a, b) -> order.compare(sortedRuns.get(a[0]).get(a[1]), sortedRuns.get(b[0]).get(b[1])));
+
+        for (int i = 0; i < sortedRuns.size(); i++) {
+            if (!sortedRuns.get(i).isEmpty()) {
+                heads.add(new int[] {i, 0});
+            }
+        }
+
+        List<T> merged = new ArrayList<>();
+        while (!heads.isEmpty() && merged.size() < limit) {
+            int[] head = heads.poll();
+            List<T> run = sortedRuns.get(head[0]);
+            merged.add(run.get(head[1]));
+
+            if (head[1] + 1 < run.size()) {
+                heads.add(new int[] {head[0], head[1] + 1});
+            }
+        }
+        return merged;
+    }
+}
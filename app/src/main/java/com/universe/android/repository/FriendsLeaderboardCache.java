@@ -0,0 +1,336 @@
+package com.universe.android.repository;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.universe.android.model.LeaderboardEntry;
+import com.universe.android.model.User;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-memory leaderboard rows for the current user's friends.
+ * Their leaderboard_entries projections are watched by snapshot listeners in whereIn-sized chunks,
+ * and friends without a projection are read once from their user documents. Only document changes
+ * are applied, and a change to the friend list re-registers just the chunks it touches.
+ * Switching display modes re-sorts the cached rows without touching the network.
+ * Callbacks arrive on the main thread, like the Firestore listeners feeding it.
+ */
+public class FriendsLeaderboardCache extends FirebaseRepository implements CurrentUserStore.OnUserChangedListener {
+    private static final String TAG = "FriendsLeaderboardCache";
+
+    private static FriendsLeaderboardCache instance;
+
+    private final List<OnFriendsChangedListener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, LeaderboardEntry> projections = new HashMap<>();
+    private final List<Chunk> chunks = new ArrayList<>();
+    private final Set<String> friendIds = new HashSet<>();
+    private LeaderboardEntry self;
+    private boolean started = false;
+
+    private FriendsLeaderboardCache() {
+        super();
+    }
+
+    public static synchronized FriendsLeaderboardCache getInstance() {
+        if (instance == null) {
+            instance = new FriendsLeaderboardCache();
+        }
+        return instance;
+    }
+
+    public interface OnFriendsChangedListener {
+        void onFriendsChanged();
+
+        // The current user or a friend chunk could not be loaded; adding a listener again retries
+        void onFriendsError(Exception e);
+    }
+
+    private static class Chunk {
+        final Set<String> ids = new HashSet<>();
+        ListenerRegistration registration;
+        int generation = 0;
+        boolean loaded = false;
+        boolean failed = false;
+        boolean checkedUnprojected = false;
+    }
+
+    /**
+     * Registers a listener and starts watching on first use; the listeners stay attached
+     * afterwards so later visits render from memory. Anything that failed to load is retried.
+     */
+    public void addListener(OnFriendsChangedListener listener) {
+        listeners.add(listener);
+
+        if (!started) {
+            started = true;
+            CurrentUserStore.getInstance().addListener(this);
+            loadSelf();
+        } else if (isLoaded()) {
+            listener.onFriendsChanged();
+        } else {
+            retryFailed();
+        }
+    }
+
+    public void removeListener(OnFriendsChangedListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Whether the current user and every friend chunk have delivered their first snapshot
+     */
+    public boolean isLoaded() {
+        if (self == null) return false;
+
+        for (Chunk chunk : chunks) {
+            if (!chunk.loaded) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Friends plus the current user, ranked by display mode (points, hours, streak), at most limit rows.
+     * Each chunk's rows are sorted on their own (at most MAX_WHERE_IN of them) and the runs are
+     * combined with a k-way merge that stops at limit.
+     */
+    public List<LeaderboardEntry> getEntries(String displayMode, int limit) {
+        Comparator<LeaderboardEntry> order = LeaderboardRepository.entryOrder(displayMode);
+
+        List<List<LeaderboardEntry>> runs = new ArrayList<>(chunks.size() + 1);
+        for (Chunk chunk : chunks) {
+            List<LeaderboardEntry> run = new ArrayList<>(chunk.ids.size());
+            for (String friendId : chunk.ids) {
+                LeaderboardEntry projection = projections.get(friendId);
+                if (projection != null) {
+                    run.add(projection);
+                }
+            }
+            run.sort(order);
+            runs.add(run);
+        }
+        if (self != null) {
+            runs.add(Collections.singletonList(self));
+        }
+
+        List<LeaderboardEntry> rows = FanOutQuery.mergeTopN(runs, order, limit);
+
+        List<LeaderboardEntry> ranked = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            LeaderboardEntry entry = new LeaderboardEntry(rows.get(i), i + 1);
+            entry.setCurrentUser(rows.get(i) == self);
+            ranked.add(entry);
+        }
+        return ranked;
+    }
+
+    public void clear() {
+        CurrentUserStore.getInstance().removeListener(this);
+        for (Chunk chunk : chunks) {
+            if (chunk.registration != null) {
+                chunk.registration.remove();
+            }
+        }
+        chunks.clear();
+        projections.clear();
+        friendIds.clear();
+        self = null;
+        started = false;
+    }
+
+    @Override
+    public void onUserChanged(User user) {
+        self = new LeaderboardEntry(user, 0);
+
+        Set<String> updated = new HashSet<>();
+        if (user.getFriends() != null) {
+            updated.addAll(user.getFriends());
+        }
+        updated.remove(user.getUid());
+
+        if (!updated.equals(friendIds)) {
+            syncFriends(updated);
+        }
+        notifyListeners();
+    }
+
+    private void syncFriends(Set<String> updated) {
+        Set<String> removed = new HashSet<>(friendIds);
+        removed.removeAll(updated);
+        Set<String> added = new HashSet<>(updated);
+        added.removeAll(friendIds);
+
+        friendIds.clear();
+        friendIds.addAll(updated);
+
+        Set<Chunk> dirty = new HashSet<>();
+
+        for (String friendId : removed) {
+            projections.remove(friendId);
+            for (Chunk chunk : chunks) {
+                if (chunk.ids.remove(friendId)) {
+                    dirty.add(chunk);
+                }
+            }
+        }
+
+        for (String friendId : added) {
+            Chunk target = null;
+            for (Chunk chunk : chunks) {
+                if (chunk.ids.size() < FanOutQuery.MAX_WHERE_IN) {
+                    target = chunk;
+                    break;
+                }
+            }
+            if (target == null) {
+                target = new Chunk();
+                chunks.add(target);
+            }
+            target.ids.add(friendId);
+            dirty.add(target);
+        }
+
+        // Untouched chunks keep their listeners
+        for (Chunk chunk : dirty) {
+            if (chunk.registration != null) {
+                chunk.registration.remove();
+                chunk.registration = null;
+            }
+
+            if (chunk.ids.isEmpty()) {
+                chunks.remove(chunk);
+            } else {
+                listen(chunk);
+            }
+        }
+    }
+
+    // The store replays the user to onUserChanged once it has one; this only surfaces a failed or empty read
+    private void loadSelf() {
+        if (self != null) return;
+
+        Task<User> read = CurrentUserStore.getInstance().getUser();
+        if (read == null) {
+            notifyError(new IllegalStateException("User not logged in"));
+            return;
+        }
+        read.addOnSuccessListener(user -> {
+            if (user == null) {
+                notifyError(new IllegalStateException("User profile not found"));
+            }
+        }).addOnFailureListener(this::notifyError);
+    }
+
+    private void retryFailed() {
+        if (self == null) {
+            loadSelf();
+        }
+        for (Chunk chunk : chunks) {
+            if (chunk.failed) {
+                listen(chunk);
+            }
+        }
+    }
+
+    private void listen(Chunk chunk) {
+        int generation = ++chunk.generation;
+        chunk.loaded = false;
+        chunk.failed = false;
+        chunk.checkedUnprojected = false;
+
+        chunk.registration = db.collection(LeaderboardRepository.COLLECTION_LEADERBOARD_ENTRIES)
+                .whereIn(FieldPath.documentId(), new ArrayList<>(chunk.ids))
+                .addSnapshotListener((snapshots, e) -> {
+                    // A newer registration replaced this one
+                    if (generation != chunk.generation) return;
+
+                    if (e != null) {
+                        Log.e(TAG, "Friends listen failed", e);
+                        // Firestore has already detached this listener
+                        chunk.registration = null;
+                        chunk.failed = true;
+                        notifyError(e);
+                        return;
+                    }
+
+                    if (snapshots == null) return;
+
+                    for (DocumentChange change : snapshots.getDocumentChanges()) {
+                        String friendId = change.getDocument().getId();
+                        if (change.getType() == DocumentChange.Type.REMOVED) {
+                            projections.remove(friendId);
+                            continue;
+                        }
+
+                        if (friendIds.contains(friendId)) {
+                            projections.put(friendId, LeaderboardRepository.entryFromProjection(change.getDocument()));
+                        }
+                    }
+
+                    if (!chunk.checkedUnprojected) {
+                        chunk.checkedUnprojected = true;
+
+                        Set<String> unprojected = new HashSet<>(chunk.ids);
+                        for (DocumentSnapshot document : snapshots.getDocuments()) {
+                            unprojected.remove(document.getId());
+                        }
+                        if (!unprojected.isEmpty()) {
+                            loadUnprojected(chunk, generation, unprojected);
+                            return;
+                        }
+                    }
+
+                    chunk.loaded = true;
+                    notifyListeners();
+                });
+    }
+
+    // Friends without a projection yet are read once from their user documents, as LeaderboardRepository.getEntries
+    // does; a projection arriving later replaces the row through the listener
+    private void loadUnprojected(Chunk chunk, int generation, Set<String> userIds) {
+        FanOutQuery.fetchAll(db.collection("users"), FieldPath.documentId(), userIds,
+                        LeaderboardRepository::entryFromUser)
+                .addOnCompleteListener(task -> {
+                    if (generation != chunk.generation) return;
+
+                    if (task.isSuccessful()) {
+                        for (LeaderboardEntry entry : task.getResult()) {
+                            if (friendIds.contains(entry.getUserId())) {
+                                projections.putIfAbsent(entry.getUserId(), entry);
+                            }
+                        }
+                    } else {
+                        Log.e(TAG, "Failed to load friends without a projection", task.getException());
+                    }
+
+                    chunk.loaded = true;
+                    notifyListeners();
+                });
+    }
+
+    private void notifyListeners() {
+        if (!isLoaded()) return;
+
+        for (OnFriendsChangedListener listener : listeners) {
+            listener.onFriendsChanged();
+        }
+    }
+
+    private void notifyError(Exception e) {
+        for (OnFriendsChangedListener listener : listeners) {
+            listener.onFriendsError(e);
+        }
+    }
+}
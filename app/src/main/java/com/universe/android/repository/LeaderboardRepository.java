@@ -0,0 +1,487 @@
+package com.universe.android.repository;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.Query;
+import com.universe.android.model.LeaderboardEntry;
+import com.universe.android.model.User;
+import com.universe.android.util.StatsHelper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Materialized top-N leaderboards, one document per organisation and metric.
+ * Rows are packed into a single flat array [uid, username, score, level, avatarHash, uid, ...]
+ * so a whole leaderboard is one small document read. Boards packed before avatarHash was added
+ * have no rowStride field and four values per row; they are read as such and repacked on the next write.
+ * Boards are built from leaderboard_entries/{uid}, a per-user projection holding only the
+ * fields a leaderboard row renders; UserRepository keeps it in step on every stats write.
+ */
+public class LeaderboardRepository extends FirebaseRepository {
+    private static final String TAG = "LeaderboardRepository";
+    private static final String COLLECTION_LEADERBOARDS = "leaderboards";
+    static final String COLLECTION_LEADERBOARD_ENTRIES = "leaderboard_entries";
+    private static final int ROW_STRIDE = 5;
+    private static final int LEGACY_ROW_STRIDE = 4; // [uid, username, score, level]
+    private static final long REBUILD_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(24);
+
+    public static final String METRIC_POINTS = "points";
+    public static final String METRIC_STUDY_TIME = "totalStudyTime";
+    public static final String METRIC_STREAK = "streakDays";
+    public static final int LEADERBOARD_SIZE = 100;
+
+    private static LeaderboardRepository instance;
+    private final SingleFlight singleFlight;
+
+    private LeaderboardRepository() {
+        super();
+        singleFlight = new SingleFlight();
+    }
+
+    public static synchronized LeaderboardRepository getInstance() {
+        if (instance == null) {
+            instance = new LeaderboardRepository();
+        }
+        return instance;
+    }
+
+    private static class Row {
+        final String userId;
+        String username;
+        long score;
+        int level;
+        String avatarHash;
+
+        Row(String userId, String username, long score, int level, String avatarHash) {
+            this.userId = userId;
+            this.username = username;
+            this.score = score;
+            this.level = level;
+            this.avatarHash = avatarHash;
+        }
+    }
+
+    /**
+     * Top entries for the organisation, ranked by the metric.
+     * The document is rebuilt from leaderboard_entries when missing or older than a day,
+     * which also corrects any drift from the incremental updates.
+     */
+    public Task<List<LeaderboardEntry>> getLeaderboard(String orgId, String metric) {
+        DocumentReference boardRef = boardRef(orgId, metric);
+
+        return singleFlight.execute(boardRef.getPath(), () -> boardRef.get().continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                return Tasks.forException(task.getException());
+            }
+
+            DocumentSnapshot snapshot = task.getResult();
+            Long rebuiltAt = snapshot.getLong("rebuiltAt");
+            if (!snapshot.exists() || rebuiltAt == null
+                    || System.currentTimeMillis() - rebuiltAt > REBUILD_INTERVAL_MILLIS) {
+                return rebuild(orgId, metric);
+            }
+
+            return Tasks.forResult(toEntries(unpack(snapshot), metric));
+        }));
+    }
+
+    /**
+     * Leaderboard projections for a set of users, fetched in parallel whereIn chunks.
+     * Users without a projection yet are read from their user documents instead, which also
+     * carries any legacy inline avatar; ids matching neither are left out.
+     */
+    public Task<List<LeaderboardEntry>> getEntries(Collection<String> userIds) {
+        return FanOutQuery.fetchAll(db.collection(COLLECTION_LEADERBOARD_ENTRIES), FieldPath.documentId(), userIds,
+                LeaderboardRepository::entryFromProjection).continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+
+            List<LeaderboardEntry> entries = task.getResult();
+            Set<String> unprojected = new HashSet<>(userIds);
+            for (LeaderboardEntry entry : entries) {
+                unprojected.remove(entry.getUserId());
+            }
+            if (unprojected.isEmpty()) {
+                return Tasks.forResult(entries);
+            }
+
+            return FanOutQuery.fetchAll(db.collection("users"), FieldPath.documentId(), unprojected,
+                    LeaderboardRepository::entryFromUser).continueWith(userTask -> {
+                if (!userTask.isSuccessful()) {
+                    throw userTask.getException();
+                }
+
+                entries.addAll(userTask.getResult());
+                return entries;
+            });
+        });
+    }
+
+    static LeaderboardEntry entryFromUser(DocumentSnapshot document) {
+        User user = document.toObject(User.class);
+        if (user == null) return null;
+        if (user.getUid() == null) {
+            user.setUid(document.getId());
+        }
+        return new LeaderboardEntry(user, 0);
+    }
+
+    /**
+     * Applies score increments (e.g. points awarded after a session) to the packed board.
+     * Users already on the board are adjusted in place; the rest are read once to see if they now qualify.
+     * Call after the increments on the user documents have committed.
+     */
+    public Task<Void> applyDeltas(String orgId, String metric, Map<String, Long> deltas) {
+        if (orgId == null || orgId.isEmpty() || deltas.isEmpty()) {
+            return Tasks.forResult(null);
+        }
+
+        DocumentReference boardRef = boardRef(orgId, metric);
+
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot snapshot = transaction.get(boardRef);
+            if (!snapshot.exists()) {
+                // Nothing materialized yet, the next read builds it with these scores included
+                return null;
+            }
+
+            Map<String, Row> rows = unpack(snapshot);
+            Map<String, DocumentSnapshot> newcomers = new HashMap<>();
+            for (String userId : deltas.keySet()) {
+                if (!rows.containsKey(userId)) {
+                    newcomers.put(userId, transaction.get(entryRef(userId)));
+                }
+            }
+
+            for (Map.Entry<String, Long> delta : deltas.entrySet()) {
+                Row row = rows.get(delta.getKey());
+                if (row != null) {
+                    row.score += delta.getValue();
+                    if (METRIC_POINTS.equals(metric)) {
+                        row.level = StatsHelper.calculateLevel((int) row.score);
+                    }
+                }
+            }
+
+            // Newcomer projections already include the committed increment
+            for (DocumentSnapshot projection : newcomers.values()) {
+                if (projection.exists() && orgId.equals(projection.getString("organisationId"))) {
+                    rows.put(projection.getId(), toRow(projection, metric));
+                }
+            }
+
+            transaction.update(boardRef, packed(rows));
+            return null;
+        }).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                Log.e(TAG, "Failed to update leaderboard " + boardRef.getPath(), task.getException());
+                throw task.getException();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Writes the user's current values onto the given boards, for metrics that are set rather than incremented
+     */
+    public Task<Void> submitScores(User user, String... metrics) {
+        String orgId = user.getOrganisationId();
+        if (orgId == null || orgId.isEmpty() || metrics.length == 0) {
+            return Tasks.forResult(null);
+        }
+
+        List<DocumentReference> boardRefs = new ArrayList<>();
+        for (String metric : metrics) {
+            boardRefs.add(boardRef(orgId, metric));
+        }
+
+        return db.runTransaction(transaction -> {
+            List<DocumentSnapshot> snapshots = new ArrayList<>();
+            for (DocumentReference boardRef : boardRefs) {
+                snapshots.add(transaction.get(boardRef));
+            }
+
+            for (int i = 0; i < metrics.length; i++) {
+                DocumentSnapshot snapshot = snapshots.get(i);
+                if (!snapshot.exists()) continue;
+
+                Map<String, Row> rows = unpack(snapshot);
+                rows.put(user.getUid(), toRow(user, metrics[i]));
+                transaction.update(boardRefs.get(i), packed(rows));
+            }
+            return null;
+        }).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                Log.e(TAG, "Failed to submit scores for " + user.getUid(), task.getException());
+                throw task.getException();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Renames or re-avatars the user's row on every board of the organisation they are on,
+     * so identity changes show without waiting for the daily rebuild. Null leaves a field as it is.
+     */
+    public Task<Void> updateIdentity(String orgId, String userId, String username, String avatarHash) {
+        if (orgId == null || orgId.isEmpty()) {
+            return Tasks.forResult(null);
+        }
+
+        String[] metrics = {METRIC_POINTS, METRIC_STUDY_TIME, METRIC_STREAK};
+        List<DocumentReference> boardRefs = new ArrayList<>();
+        for (String metric : metrics) {
+            boardRefs.add(boardRef(orgId, metric));
+        }
+
+        return db.runTransaction(transaction -> {
+            List<DocumentSnapshot> snapshots = new ArrayList<>();
+            for (DocumentReference boardRef : boardRefs) {
+                snapshots.add(transaction.get(boardRef));
+            }
+
+            for (int i = 0; i < boardRefs.size(); i++) {
+                DocumentSnapshot snapshot = snapshots.get(i);
+                if (!snapshot.exists()) continue;
+
+                Map<String, Row> rows = unpack(snapshot);
+                Row row = rows.get(userId);
+                if (row == null) continue;
+
+                if (username != null) {
+                    row.username = username;
+                }
+                if (avatarHash != null) {
+                    row.avatarHash = avatarHash;
+                }
+                transaction.update(boardRefs.get(i), packed(rows));
+            }
+            return null;
+        }).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                Log.e(TAG, "Failed to update leaderboard rows for " + userId, task.getException());
+                throw task.getException();
+            }
+            return null;
+        });
+    }
+
+    private Task<List<LeaderboardEntry>> rebuild(String orgId, String metric) {
+        Log.d(TAG, "Rebuilding leaderboard " + orgId + "/" + metric);
+
+        // Built from projections, so every user needs one first, including those who haven't signed in since
+        return DataMigrations.getInstance().backfillLeaderboardEntries()
+                .continueWithTask(migration -> db.collection(COLLECTION_LEADERBOARD_ENTRIES)
+                        .whereEqualTo("organisationId", orgId)
+                        .orderBy(metric, Query.Direction.DESCENDING)
+                        .limit(LEADERBOARD_SIZE)
+                        .get())
+                .continueWith(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+
+                    Map<String, Row> rows = new LinkedHashMap<>();
+                    for (DocumentSnapshot document : task.getResult()) {
+                        rows.put(document.getId(), toRow(document, metric));
+                    }
+
+                    Map<String, Object> board = new HashMap<>();
+                    board.put("organisationId", orgId);
+                    board.put("metric", metric);
+                    board.putAll(packed(rows));
+                    board.put("rebuiltAt", System.currentTimeMillis());
+                    boardRef(orgId, metric).set(board)
+                            .addOnFailureListener(e -> Log.e(TAG, "Failed to store leaderboard", e));
+
+                    return toEntries(rows, metric);
+                });
+    }
+
+    private DocumentReference boardRef(String orgId, String metric) {
+        return db.collection(COLLECTION_LEADERBOARDS).document(orgId + "_" + metric);
+    }
+
+    DocumentReference entryRef(String userId) {
+        return db.collection(COLLECTION_LEADERBOARD_ENTRIES).document(userId);
+    }
+
+    // Full projection of a user, for creating or backfilling leaderboard_entries/{uid}
+    static Map<String, Object> projectionOf(User user) {
+        Map<String, Object> projection = identityOf(user.getUid(), user.getUsername(), user.getOrganisationId());
+        projection.put(METRIC_POINTS, user.getPoints());
+        projection.put(METRIC_STUDY_TIME, user.getTotalStudyTime());
+        projection.put(METRIC_STREAK, user.getStreakDays());
+        projection.put("avatarHash", user.getAvatarHash());
+        return projection;
+    }
+
+    /**
+     * Who a projection belongs to. Every merge into leaderboard_entries carries these, so a merge that
+     * lands on a missing document still creates a row that queries and boards can name and place.
+     */
+    static Map<String, Object> identityOf(String userId, String username, String organisationId) {
+        Map<String, Object> identity = new HashMap<>();
+        identity.put("uid", userId);
+        identity.put("username", username);
+        identity.put("organisationId", organisationId);
+        return identity;
+    }
+
+    // Merge update for one projection field, with the owner's identity
+    static Map<String, Object> projectionUpdate(String userId, String username, String organisationId,
+                                                String field, Object value) {
+        Map<String, Object> update = identityOf(userId, username, organisationId);
+        update.put(field, value);
+        return update;
+    }
+
+    static LeaderboardEntry entryFromProjection(DocumentSnapshot projection) {
+        LeaderboardEntry entry = new LeaderboardEntry();
+        entry.setUserId(projection.getId());
+        entry.setUsername(projection.getString("username"));
+        entry.setPoints(longField(projection, METRIC_POINTS).intValue()); // Also derives the level
+        entry.setStudyTime(longField(projection, METRIC_STUDY_TIME));
+        entry.setStreakDays(longField(projection, METRIC_STREAK).intValue());
+        entry.setAvatarHash(projection.getString("avatarHash"));
+        return entry;
+    }
+
+    // Accepts both display modes and field names
+    public static Comparator<LeaderboardEntry> entryOrder(String sortField) {
+        switch (sortField) {
+            case "hours":
+            case METRIC_STUDY_TIME:
+                return (a, b) -> Long.compare(b.getStudyTime(), a.getStudyTime());
+            case "streak":
+            case METRIC_STREAK:
+                return (a, b) -> Integer.compare(b.getStreakDays(), a.getStreakDays());
+            case METRIC_POINTS:
+            default:
+                return (a, b) -> Integer.compare(b.getPoints(), a.getPoints());
+        }
+    }
+
+    private static Long longField(DocumentSnapshot document, String field) {
+        Long value = document.getLong(field);
+        return value != null ? value : 0L;
+    }
+
+    private static Row toRow(DocumentSnapshot projection, String metric) {
+        long points = longField(projection, METRIC_POINTS);
+        return new Row(projection.getId(), projection.getString("username"),
+                longField(projection, metric), StatsHelper.calculateLevel((int) points),
+                projection.getString("avatarHash"));
+    }
+
+    private static Row toRow(User user, String metric) {
+        return new Row(user.getUid(), user.getUsername(), metricValue(user, metric), user.calculateLevel(),
+                user.getAvatarHash());
+    }
+
+    private static long metricValue(User user, String metric) {
+        switch (metric) {
+            case METRIC_STUDY_TIME:
+                return user.getTotalStudyTime();
+            case METRIC_STREAK:
+                return user.getStreakDays();
+            case METRIC_POINTS:
+            default:
+                return user.getPoints();
+        }
+    }
+
+    private static Map<String, Row> unpack(DocumentSnapshot snapshot) {
+        Map<String, Row> rows = new LinkedHashMap<>();
+        Object packed = snapshot.get("entries");
+        if (!(packed instanceof List)) return rows;
+
+        Long storedStride = snapshot.getLong("rowStride");
+        int stride = storedStride != null ? storedStride.intValue() : LEGACY_ROW_STRIDE;
+
+        List<?> values = (List<?>) packed;
+        for (int i = 0; i + stride <= values.size(); i += stride) {
+            String userId = (String) values.get(i);
+            String username = (String) values.get(i + 1);
+            long score = ((Number) values.get(i + 2)).longValue();
+            int level = ((Number) values.get(i + 3)).intValue();
+            String avatarHash = stride > LEGACY_ROW_STRIDE ? (String) values.get(i + 4) : null;
+            rows.put(userId, new Row(userId, username, score, level, avatarHash));
+        }
+        return rows;
+    }
+
+    // The board fields to write for these rows, with the stride they are packed in
+    private static Map<String, Object> packed(Map<String, Row> rows) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("entries", pack(rows));
+        fields.put("rowStride", ROW_STRIDE);
+        return fields;
+    }
+
+    // Sorts by score and keeps the top LEADERBOARD_SIZE rows
+    private static List<Object> pack(Map<String, Row> rows) {
+        List<Row> sorted = new ArrayList<>(rows.values());
+        sorted.sort((a, b) -> Long.compare(b.score, a.score));
+
+        int count = Math.min(sorted.size(), LEADERBOARD_SIZE);
+        List<Object> packed = new ArrayList<>(count * ROW_STRIDE);
+        for (int i = 0; i < count; i++) {
+            Row row = sorted.get(i);
+            packed.add(row.userId);
+            packed.add(row.username);
+            packed.add(row.score);
+            packed.add(row.level);
+            packed.add(row.avatarHash);
+        }
+        return packed;
+    }
+
+    private static List<LeaderboardEntry> toEntries(Map<String, Row> rows, String metric) {
+        List<Row> sorted = new ArrayList<>(rows.values());
+        sorted.sort((a, b) -> Long.compare(b.score, a.score));
+
+        List<LeaderboardEntry> entries = new ArrayList<>(sorted.size());
+        int rank = 1;
+        for (Row row : sorted) {
+            LeaderboardEntry entry = new LeaderboardEntry();
+            entry.setUserId(row.userId);
+            entry.setUsername(row.username);
+            entry.setAvatarHash(row.avatarHash);
+            entry.setRank(rank++);
+
+            switch (metric) {
+                case METRIC_STUDY_TIME:
+                    entry.setStudyTime(row.score);
+                    break;
+                case METRIC_STREAK:
+                    entry.setStreakDays((int) row.score);
+                    break;
+                case METRIC_POINTS:
+                default:
+                    entry.setPoints((int) row.score);
+                    break;
+            }
+            // After setPoints, which derives its own level
+            entry.setLevel(row.level);
+
+            entries.add(entry);
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,110 @@
+package com.universe.android.repository;
+
+import android.util.Log;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory nfcId -> user roster for one organisation, kept fresh by a snapshot listener
+ * on the nfc_tags collection so a tap resolves without a Firestore round trip.
+ */
+public class NfcRoster extends FirebaseRepository {
+    private static final String TAG = "NfcRoster";
+    static final String COLLECTION_NFC_TAGS = "nfc_tags";
+
+    private static NfcRoster instance;
+
+    private ListenerRegistration registration;
+    private String organisationId;
+    private volatile Map<String, Entry> entries = new HashMap<>();
+
+    private NfcRoster() {
+        super();
+    }
+
+    public static synchronized NfcRoster getInstance() {
+        if (instance == null) {
+            instance = new NfcRoster();
+        }
+        return instance;
+    }
+
+    public static class Entry {
+        private final String userId;
+        private final String username;
+
+        Entry(String userId, String username) {
+            this.userId = userId;
+            this.username = username;
+        }
+
+        public String getUserId() {
+            return userId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+    }
+
+    /**
+     * Starts listening to the organisation's roster, no-op if it is already loaded
+     */
+    public synchronized void start(String orgId) {
+        if (orgId == null || orgId.isEmpty()) return;
+        if (orgId.equals(organisationId) && registration != null) return;
+
+        stop();
+        organisationId = orgId;
+
+        // Tags registered before the roster existed; the listener below picks the writes up
+        DataMigrations.getInstance().backfillNfcTags();
+
+        registration = db.collection(COLLECTION_NFC_TAGS)
+                .whereEqualTo("organisationId", orgId)
+                .addSnapshotListener((snapshots, e) -> {
+                    if (e != null) {
+                        Log.e(TAG, "Roster listen failed", e);
+                        return;
+                    }
+
+                    if (snapshots == null) return;
+
+                    // Rebuild and swap, so readers on other threads never see a half-built map
+                    Map<String, Entry> rebuilt = new HashMap<>(snapshots.size() * 2);
+                    for (DocumentSnapshot document : snapshots.getDocuments()) {
+                        String userId = document.getString("uid");
+                        if (userId != null) {
+                            rebuilt.put(document.getId(), new Entry(userId, document.getString("username")));
+                        }
+                    }
+
+                    synchronized (this) {
+                        if (!orgId.equals(organisationId)) return;
+                        entries = rebuilt;
+                    }
+                    Log.d(TAG, "Roster loaded for " + orgId + ": " + rebuilt.size() + " tags");
+                });
+    }
+
+    public synchronized void stop() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+        organisationId = null;
+        entries = new HashMap<>();
+    }
+
+    /**
+     * Local lookup, null if the tag is not in the roster (yet). A miss is never final: callers fall back
+     * to UserRepository.getUserByNfcId.
+     */
+    public Entry resolve(String nfcId) {
+        return entries.get(nfcId);
+    }
+}
@@ -0,0 +1,151 @@
+package com.universe.android.repository;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.universe.android.model.StudySession;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cursor-paginated session history, newest first.
+ * Merges the participantIds stream with the hostId stream (for sessions created before
+ * participantIds existed), each paged with startAfter on startTime.
+ */
+public class SessionHistoryPager {
+    private final Stream[] streams;
+    private final int pageSize;
+    private final Task<Void> ready;
+    private final Set<String> seenIds = new HashSet<>();
+    private Task<List<StudySession>> pendingPage;
+
+    SessionHistoryPager(Query participantQuery, Query hostQuery, int pageSize, Task<Void> ready) {
+        this.pageSize = pageSize;
+        this.ready = ready;
+        this.streams = new Stream[] {
+                new Stream(participantQuery),
+                new Stream(hostQuery)
+        };
+    }
+
+    public boolean hasMore() {
+        for (Stream stream : streams) {
+            if (!stream.buffer.isEmpty() || !stream.exhausted) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isLoading() {
+        return pendingPage != null && !pendingPage.isComplete();
+    }
+
+    /**
+     * Loads the next page; calling again while a page is in flight returns the same Task
+     */
+    public Task<List<StudySession>> loadNextPage() {
+        if (isLoading()) {
+            return pendingPage;
+        }
+
+        // Streams are only queried once the membership backfill has run (or failed)
+        pendingPage = ready.continueWithTask(migration -> {
+            List<Task<Void>> fills = new ArrayList<>();
+            for (Stream stream : streams) {
+                // Each stream needs a full page buffered so the merge is correct
+                if (!stream.exhausted && stream.buffer.size() < pageSize) {
+                    fills.add(stream.fetch(pageSize));
+                }
+            }
+            return Tasks.whenAll(fills);
+        }).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            return takePage();
+        });
+        return pendingPage;
+    }
+
+    private List<StudySession> takePage() {
+        List<StudySession> page = new ArrayList<>();
+
+        while (page.size() < pageSize) {
+            Stream newest = null;
+            for (Stream stream : streams) {
+                if (stream.buffer.isEmpty()) continue;
+                if (newest == null || isNewer(stream.buffer.peekFirst(), newest.buffer.peekFirst())) {
+                    newest = stream;
+                }
+            }
+
+            if (newest == null) break;
+
+            StudySession session = newest.buffer.pollFirst();
+            if (session != null && seenIds.add(session.getId())) {
+                page.add(session);
+            }
+
+            // A drained, non-exhausted stream may hold newer items than what's left elsewhere
+            if (newest.buffer.isEmpty() && !newest.exhausted) break;
+        }
+
+        return page;
+    }
+
+    private static boolean isNewer(StudySession a, StudySession b) {
+        Date aTime = a.getStartTime();
+        Date bTime = b.getStartTime();
+        if (aTime == null) return false;
+        if (bTime == null) return true;
+        return aTime.after(bTime);
+    }
+
+    private static class Stream {
+        private final Query query;
+        private final Deque<StudySession> buffer = new ArrayDeque<>();
+        private DocumentSnapshot cursor;
+        private boolean exhausted = false;
+
+        Stream(Query query) {
+            this.query = query;
+        }
+
+        Task<Void> fetch(int limit) {
+            Query page = query.limit(limit);
+            if (cursor != null) {
+                page = page.startAfter(cursor);
+            }
+
+            return page.get().continueWith(task -> {
+                if (!task.isSuccessful()) {
+                    throw task.getException();
+                }
+
+                QuerySnapshot snapshot = task.getResult();
+                List<DocumentSnapshot> documents = snapshot.getDocuments();
+                for (DocumentSnapshot document : documents) {
+                    StudySession session = document.toObject(StudySession.class);
+                    if (session != null) {
+                        buffer.addLast(session);
+                    }
+                }
+
+                if (!documents.isEmpty()) {
+                    cursor = documents.get(documents.size() - 1);
+                }
+                exhausted = documents.size() < limit;
+                return null;
+            });
+        }
+    }
+}
@@ -4,20 +4,27 @@ import android.util.Log;
 
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.AggregateField;
+import com.google.firebase.firestore.AggregateQuerySnapshot;
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.Filter;
 import com.google.firebase.firestore.ListenerRegistration;
 import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
 import com.universe.android.model.StudySession;
 
-import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 public class SessionRepository extends FirebaseRepository {
     private static final String TAG = "SessionRepository";
-    private static final String COLLECTION_SESSIONS = "sessions";
+    static final String COLLECTION_SESSIONS = "sessions";
 
     private static SessionRepository instance;
 
@@ -60,6 +67,74 @@ public class SessionRepository extends FirebaseRepository {
                 });
     }
 
+    /**
+     * Paged history, newest first; both queries need a composite index with startTime DESC.
+     * Pages wait for participantIds to be backfilled on sessions joined before the field existed.
+     */
+    public SessionHistoryPager getUserSessionHistory(String userId, int pageSize) {
+        Query participantQuery = db.collection(COLLECTION_SESSIONS)
+                .whereArrayContains("participantIds", userId)
+                .orderBy("startTime", Query.Direction.DESCENDING);
+        Query hostQuery = db.collection(COLLECTION_SESSIONS)
+                .whereEqualTo("hostId", userId)
+                .orderBy("startTime", Query.Direction.DESCENDING);
+
+        return new SessionHistoryPager(participantQuery, hostQuery, pageSize,
+                DataMigrations.getInstance().backfillSessionParticipantIds());
+    }
+
+    // Totals for the history header, computed server-side so they don't depend on loaded pages.
+    // Covers the same sessions as the history pager: listed in participantIds (backfilled first), or hosted.
+    // A session matching both filters is counted once.
+    public Task<SessionTotals> getUserSessionTotals(String userId) {
+        AggregateField duration = AggregateField.sum("durationSeconds");
+        AggregateField points = AggregateField.sum("pointsAwarded");
+
+        return DataMigrations.getInstance().backfillSessionParticipantIds()
+                .continueWithTask(migration -> db.collection(COLLECTION_SESSIONS)
+                        .where(Filter.or(
+                                Filter.arrayContains("participantIds", userId),
+                                Filter.equalTo("hostId", userId)))
+                        .aggregate(AggregateField.count(), duration, points)
+                        .get(AggregateSource.SERVER))
+                .continueWith(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+
+                    AggregateQuerySnapshot snapshot = task.getResult();
+                    Long durationSum = snapshot.getLong(duration);
+                    Long pointsSum = snapshot.getLong(points);
+                    return new SessionTotals(snapshot.getCount(),
+                            durationSum != null ? durationSum : 0,
+                            pointsSum != null ? pointsSum : 0);
+                });
+    }
+
+    public static class SessionTotals {
+        private final long sessionCount;
+        private final long durationSeconds;
+        private final long points;
+
+        SessionTotals(long sessionCount, long durationSeconds, long points) {
+            this.sessionCount = sessionCount;
+            this.durationSeconds = durationSeconds;
+            this.points = points;
+        }
+
+        public long getSessionCount() {
+            return sessionCount;
+        }
+
+        public long getDurationSeconds() {
+            return durationSeconds;
+        }
+
+        public long getPoints() {
+            return points;
+        }
+    }
+
     public Task<Void> createSession(StudySession session) {
         return db.collection("sessions")
                 .document(session.getId())
@@ -69,44 +144,50 @@ public class SessionRepository extends FirebaseRepository {
                 });
     }
 
+    /**
+     * Adds the participant unless the session already lists them, matched by userId (or username for
+     * entries without one). The check runs in a transaction, so a user who rejoins with a changed
+     * NFC id or name is not listed twice.
+     */
     public Task<Void> addParticipantToSession(String sessionId, Map<String, String> participant) {
-        return db.collection("sessions")
-                .document(sessionId)
-                .get()
-                .continueWithTask(task -> {
-                    if (!task.isSuccessful() || task.getResult() == null) {
-                        throw new Exception("Failed to retrieve session");
-                    }
-
-                    StudySession session = task.getResult().toObject(StudySession.class);
-                    if (session == null) {
-                        throw new Exception("Session not found");
-                    }
-
-                    // Check if participant already exists
-                    boolean participantExists = session.getParticipants().stream()
-                            .anyMatch(p -> p.get("userId").equals(participant.get("userId")));
-
-                    if (!participantExists) {
-                        // Add participant to list
-                        List<Map<String, String>> updatedParticipants = new ArrayList<>(session.getParticipants());
-                        updatedParticipants.add(participant);
-
-                        // Update the session document with new participants list
-                        return db.collection("sessions")
-                                .document(sessionId)
-                                .update("participants", updatedParticipants);
+        DocumentReference sessionRef = db.collection(COLLECTION_SESSIONS).document(sessionId);
+
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot snapshot = transaction.get(sessionRef);
+            if (!snapshot.exists()) {
+                throw new IllegalStateException("Session not found");
+            }
+
+            List<?> participants = (List<?>) snapshot.get("participants");
+            if (participants != null) {
+                for (Object existing : participants) {
+                    if (existing instanceof Map && isSameParticipant((Map<?, ?>) existing, participant)) {
+                        return null;
                     }
+                }
+            }
+
+            Map<String, Object> updates = new HashMap<>();
+            updates.put("participants", FieldValue.arrayUnion(participant));
+            if (participant.get("userId") != null) {
+                updates.put("participantIds", FieldValue.arrayUnion(participant.get("userId")));
+            }
+            transaction.update(sessionRef, updates);
+            return null;
+        }).addOnSuccessListener(aVoid -> {
+            Log.d(TAG, "Participant added successfully");
+        }).addOnFailureListener(e -> {
+            Log.e(TAG, "Failed to add participant", e);
+        });
+    }
 
-                    // If participant already exists, just return a completed task
-                    return Tasks.forResult(null);
-                })
-                .addOnSuccessListener(aVoid -> {
-                    Log.d(TAG, "Participant added successfully");
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Failed to add participant", e);
-                });
+    private static boolean isSameParticipant(Map<?, ?> existing, Map<String, String> participant) {
+        String userId = participant.get("userId");
+        if (userId != null) {
+            return userId.equals(existing.get("userId"));
+        }
+        return existing.get("userId") == null
+                && Objects.equals(existing.get("username"), participant.get("username"));
     }
 
     public ListenerRegistration listenToSessionUpdates(String sessionId, OnSessionUpdateListener listener) {
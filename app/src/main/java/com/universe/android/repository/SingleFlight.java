@@ -0,0 +1,38 @@
+package com.universe.android.repository;
+
+import com.google.android.gms.tasks.Task;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent requests for the same key onto one in-flight Task.
+ * The entry is dropped as soon as the Task completes, so later callers start a fresh request.
+ */
+class SingleFlight {
+    private final Map<String, Task<?>> inFlight = new HashMap<>();
+
+    @SuppressWarnings("unchecked")
+    synchronized <T> Task<T> execute(String key, Supplier<Task<T>> request) {
+        Task<T> existing = (Task<T>) inFlight.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        Task<T> task = request.get();
+        if (task.isComplete()) {
+            return task;
+        }
+
+        inFlight.put(key, task);
+        task.addOnCompleteListener(done -> remove(key, done));
+        return task;
+    }
+
+    private synchronized void remove(String key, Task<?> task) {
+        if (inFlight.get(key) == task) {
+            inFlight.remove(key);
+        }
+    }
+}
@@ -6,34 +6,63 @@ import android.net.Uri;
 import android.provider.MediaStore;
 import android.util.Base64;
 import android.util.Log;
+import android.util.LruCache;
 
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.auth.AuthCredential;
 import com.google.firebase.auth.EmailAuthProvider;
+import com.google.firebase.firestore.AggregateSource;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.Query;
-import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+import com.universe.android.manager.AchievementManager;
+import com.universe.android.model.LeaderboardEntry;
 import com.universe.android.model.User;
 
 import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 public class UserRepository extends FirebaseRepository {
     private static final String TAG = "UserRepository";
+    private static final long ONE_DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final int MAX_BATCH_WRITES = 500; // Firestore limit per WriteBatch
+    private static final int WRITES_PER_AWARD = 2; // User document and its leaderboard projection
+    private static final int AWARDS_PER_BATCH = (MAX_BATCH_WRITES - 1) / WRITES_PER_AWARD; // One write left for the session marker
+    private static final String FIELD_POINTS_AWARDED_TO = "pointsAwardedTo"; // Session field listing credited uids
+    private static final String COLLECTION_USERNAMES = "usernames";
+    private static final int USERNAME_CACHE_SIZE = 256;
+    private static final long RANK_CACHE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
     private static UserRepository instance;
-    private User cachedCurrentUser;
+    private final CurrentUserStore currentUserStore;
+    private final LeaderboardRepository leaderboardRepository;
+    private final AvatarRepository avatarRepository;
+    private final SingleFlight singleFlight;
+    private final LruCache<String, String> usernameCache; // Normalized username -> uid
+    private final Map<String, CachedRank> rankCache = new HashMap<>(); // "orgId:points" -> rank
+
+    // Uid whose stats defaults have already been written this process
+    private String initializedStatsUid;
 
     private UserRepository() {
         super();
+        currentUserStore = CurrentUserStore.getInstance();
+        leaderboardRepository = LeaderboardRepository.getInstance();
+        avatarRepository = AvatarRepository.getInstance();
+        singleFlight = new SingleFlight();
+        usernameCache = new LruCache<>(USERNAME_CACHE_SIZE);
     }
 
     public static synchronized UserRepository getInstance() {
@@ -46,31 +75,188 @@ public class UserRepository extends FirebaseRepository {
     public Task<User> getCurrentUserData() {
         if (!isLoggedIn()) return null;
 
-        return db.collection("users")
-                .document(getCurrentUserId())
+        return currentUserStore.getUser();
+    }
+
+    public User getCachedCurrentUser() {
+        return currentUserStore.getCachedUser();
+    }
+
+    public Task<User> getUserById(String userId) {
+        if (userId.equals(getCurrentUserId())) {
+            return getCurrentUserData();
+        }
+
+        return singleFlight.execute("user:" + userId, () -> db.collection("users")
+                .document(userId)
                 .get()
                 .continueWith(task -> {
                     if (task.isSuccessful() && task.getResult() != null) {
-                        cachedCurrentUser = task.getResult().toObject(User.class);
-                        return cachedCurrentUser;
+                        return task.getResult().toObject(User.class);
                     }
                     return null;
-                });
+                }));
     }
 
+    /**
+     * Owner of a tag, looked up on the user documents. A hit is written to the NFC roster, so tags
+     * registered before the roster existed resolve locally from then on.
+     */
     public Task<User> getUserByNfcId(String nfcId) {
-        return db.collection("users")
+        return singleFlight.execute("nfc:" + nfcId, () -> db.collection("users")
                 .whereEqualTo("nfcId", nfcId)
                 .limit(1)
                 .get()
                 .continueWith(task -> {
-                    if (task.isSuccessful() && !task.getResult().isEmpty()) {
-                        return task.getResult().getDocuments().get(0).toObject(User.class);
+                    if (!task.isSuccessful() || task.getResult().isEmpty()) {
+                        return null;
+                    }
+
+                    DocumentSnapshot document = task.getResult().getDocuments().get(0);
+                    User user = document.toObject(User.class);
+                    if (user != null) {
+                        if (user.getUid() == null) {
+                            user.setUid(document.getId());
+                        }
+                        db.collection(NfcRoster.COLLECTION_NFC_TAGS).document(nfcId)
+                                .set(nfcTagEntry(document.getId(), user.getUsername(), user.getOrganisationId()))
+                                .addOnFailureListener(e -> Log.e(TAG, "Failed to add tag to NFC roster", e));
+                    }
+                    return user;
+                }));
+    }
+
+    public Task<User> getUserByUsername(String username) {
+        return resolveUserId(username).continueWithTask(task -> {
+            if (!task.isSuccessful() || task.getResult() == null) {
+                return Tasks.forResult(null);
+            }
+            return getUserById(task.getResult());
+        });
+    }
+
+    /**
+     * Username -> uid via the usernames index (case-insensitive), falling back to an exact-match query
+     * for accounts created before it. A fallback hit is written to the index, so later lookups of that
+     * name are case-insensitive too and a new account can no longer claim it.
+     */
+    public Task<String> resolveUserId(String username) {
+        String key = usernameKey(username);
+        if (key.isEmpty()) {
+            return Tasks.forResult(null);
+        }
+
+        String cachedId = usernameCache.get(key);
+        if (cachedId != null) {
+            return Tasks.forResult(cachedId);
+        }
+
+        return singleFlight.execute("username:" + key, () -> readUsernameIndex(key)
+                .continueWithTask(task -> {
+                    if (task.isSuccessful() && task.getResult() != null && task.getResult().exists()) {
+                        return Tasks.forResult(task.getResult().getString("uid"));
+                    }
+
+                    return findLegacyUsernameOwner(username).addOnSuccessListener(userId -> {
+                        if (userId != null) {
+                            claimUsernameIfAbsent(userId, username);
+                        }
+                    });
+                })
+                .addOnSuccessListener(userId -> {
+                    if (userId != null) {
+                        usernameCache.put(key, userId);
+                    }
+                }));
+    }
+
+    // Names whose key can't be a document id can only be legacy ones, found by the fallback query
+    private Task<DocumentSnapshot> readUsernameIndex(String key) {
+        if (!isValidUsernameKey(key)) {
+            return Tasks.forResult(null);
+        }
+        return db.collection(COLLECTION_USERNAMES).document(key).get();
+    }
+
+    // Exact-match lookup on the user documents, for names that are not in the index yet
+    private Task<String> findLegacyUsernameOwner(String username) {
+        return db.collection("users")
+                .whereEqualTo("username", username.trim())
+                .limit(1)
+                .get()
+                .continueWith(queryTask -> {
+                    if (queryTask.isSuccessful() && !queryTask.getResult().isEmpty()) {
+                        return queryTask.getResult().getDocuments().get(0).getId();
                     }
                     return null;
                 });
     }
 
+    /**
+     * Adds the user's name to the usernames index unless some account already holds it there.
+     * Never takes a name over, so it is safe to run for any user at any time.
+     */
+    private Task<Void> claimUsernameIfAbsent(String userId, String username) {
+        String key = usernameKey(username);
+        if (!isValidUsernameKey(key)) {
+            return Tasks.forResult(null);
+        }
+
+        DocumentReference usernameRef = db.collection(COLLECTION_USERNAMES).document(key);
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot existing = transaction.get(usernameRef);
+            if (!existing.exists()) {
+                transaction.set(usernameRef, usernameEntry(userId));
+            } else if (!userId.equals(existing.getString("uid"))) {
+                Log.w(TAG, "Username " + key + " is indexed to another account");
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Creates the user document and claims its username in the index atomically. Names held by
+     * accounts that predate the index, and have not been backfilled into it yet, are refused too.
+     */
+    public Task<Void> createUserProfile(User newUser) {
+        String key = usernameKey(newUser.getUsername());
+        if (!isValidUsernameKey(key)) {
+            return Tasks.forException(new IllegalArgumentException("Invalid username"));
+        }
+
+        DocumentReference userRef = db.collection("users").document(newUser.getUid());
+        DocumentReference usernameRef = db.collection(COLLECTION_USERNAMES).document(key);
+
+        return findLegacyUsernameOwner(newUser.getUsername()).continueWithTask(legacyTask -> {
+            if (!legacyTask.isSuccessful()) {
+                return Tasks.forException(legacyTask.getException());
+            }
+
+            String legacyOwner = legacyTask.getResult();
+            if (legacyOwner != null && !legacyOwner.equals(newUser.getUid())) {
+                return Tasks.forException(new IllegalArgumentException("Username already taken"));
+            }
+
+            return db.runTransaction(transaction -> {
+                DocumentSnapshot existing = transaction.get(usernameRef);
+                if (existing.exists() && !newUser.getUid().equals(existing.getString("uid"))) {
+                    throw new IllegalArgumentException("Username already taken");
+                }
+
+                transaction.set(usernameRef, usernameEntry(newUser.getUid()));
+                transaction.set(userRef, newUser);
+                transaction.set(leaderboardEntryRef(newUser.getUid()), LeaderboardRepository.projectionOf(newUser));
+                return null;
+            });
+        }).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            usernameCache.put(key, newUser.getUid());
+            return null;
+        });
+    }
+
     public Task<Void> uploadProfileImage(Uri imageUri, Context context) {
         if (!isLoggedIn()) return null;
 
@@ -80,11 +266,28 @@ public class UserRepository extends FirebaseRepository {
 
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
             resizedBitmap.compress(Bitmap.CompressFormat.JPEG, 70, baos);
-            String base64Image = Base64.encodeToString(baos.toByteArray(), Base64.DEFAULT);
 
-            return db.collection("users")
-                    .document(getCurrentUserId())
-                    .update("profileImageBase64", base64Image);
+            // Bytes go to the avatar store, the user document only keeps the hash
+            byte[] imageBytes = baos.toByteArray();
+            return getCurrentUserData()
+                    .continueWithTask(userTask -> {
+                        if (!userTask.isSuccessful() || userTask.getResult() == null) {
+                            return Tasks.forException(new IllegalStateException("Failed to get user data"));
+                        }
+                        return avatarRepository.setUserAvatar(userTask.getResult(), imageBytes);
+                    })
+                    .continueWith(task -> {
+                        if (!task.isSuccessful()) {
+                            throw task.getException();
+                        }
+
+                        String hash = task.getResult();
+                        currentUserStore.applyUpdate(user -> {
+                            user.setAvatarHash(hash);
+                            user.setProfileImageBase64(null);
+                        });
+                        return null;
+                    });
         } catch (Exception e) {
             Log.e(TAG, "Error processing image", e);
             return Tasks.forException(e);
@@ -94,17 +297,115 @@ public class UserRepository extends FirebaseRepository {
     public Task<Void> updateUsername(String newUsername) {
         if (!isLoggedIn()) return null;
 
-        return db.collection("users")
-                .document(getCurrentUserId())
-                .update("username", newUsername);
+        String userId = getCurrentUserId();
+        String newKey = usernameKey(newUsername);
+        if (!isValidUsernameKey(newKey)) {
+            return Tasks.forException(new IllegalArgumentException("Invalid username"));
+        }
+
+        DocumentReference userRef = db.collection("users").document(userId);
+        DocumentReference newUsernameRef = db.collection(COLLECTION_USERNAMES).document(newKey);
+
+        // Names held by accounts that predate the index are refused here, as in createUserProfile
+        return findLegacyUsernameOwner(newUsername).continueWithTask(legacyTask -> {
+            if (!legacyTask.isSuccessful()) {
+                return Tasks.forException(legacyTask.getException());
+            }
+
+            String legacyOwner = legacyTask.getResult();
+            if (legacyOwner != null && !legacyOwner.equals(userId)) {
+                return Tasks.forException(new IllegalArgumentException("Username already taken"));
+            }
+
+            // The old name comes from the document read here, so a cold cache can't orphan its index entry
+            return db.runTransaction(transaction -> {
+                DocumentSnapshot userDoc = transaction.get(userRef);
+                DocumentSnapshot existing = transaction.get(newUsernameRef);
+                if (existing.exists() && !userId.equals(existing.getString("uid"))) {
+                    throw new IllegalArgumentException("Username already taken");
+                }
+
+                String oldUsername = userDoc.getString("username");
+                String oldKey = oldUsername != null ? usernameKey(oldUsername) : "";
+
+                DocumentReference oldUsernameRef = null;
+                if (isValidUsernameKey(oldKey) && !oldKey.equals(newKey)) {
+                    oldUsernameRef = db.collection(COLLECTION_USERNAMES).document(oldKey);
+                    DocumentSnapshot oldEntry = transaction.get(oldUsernameRef);
+                    if (!oldEntry.exists() || !userId.equals(oldEntry.getString("uid"))) {
+                        oldUsernameRef = null;
+                    }
+                }
+
+                transaction.set(newUsernameRef, usernameEntry(userId));
+                if (oldUsernameRef != null) {
+                    transaction.delete(oldUsernameRef);
+                }
+                transaction.update(userRef, "username", newUsername);
+                transaction.set(leaderboardEntryRef(userId), LeaderboardRepository.identityOf(
+                        userId, newUsername, userDoc.getString("organisationId")), SetOptions.merge());
+                String nfcId = userDoc.getString("nfcId");
+                if (nfcId != null && !nfcId.isEmpty()) {
+                    transaction.set(db.collection(NfcRoster.COLLECTION_NFC_TAGS).document(nfcId),
+                            nfcTagEntry(userId, newUsername, userDoc.getString("organisationId")));
+                }
+                return oldKey;
+            });
+        }).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+
+            String oldKey = task.getResult();
+            if (!oldKey.isEmpty()) {
+                usernameCache.remove(oldKey);
+            }
+            usernameCache.put(newKey, userId);
+            currentUserStore.applyUpdate(user -> user.setUsername(newUsername));
+
+            // Rename the packed board rows too, resolved from the store so no extra read happens
+            getCurrentUserData().addOnSuccessListener(user -> {
+                if (user != null) {
+                    leaderboardRepository.updateIdentity(user.getOrganisationId(), userId, newUsername, null);
+                }
+            });
+            return null;
+        });
     }
 
     public Task<Void> updateNfcId(String newNfcId) {
         if (!isLoggedIn()) return null;
 
-        return db.collection("users")
-                .document(getCurrentUserId())
-                .update("nfcId", newNfcId);
+        String userId = getCurrentUserId();
+        DocumentReference userRef = db.collection("users").document(userId);
+        DocumentReference newTagRef = db.collection(NfcRoster.COLLECTION_NFC_TAGS).document(newNfcId);
+
+        // Keep the organisation's NFC roster in step with the user document, read in the same transaction
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot userDoc = transaction.get(userRef);
+            if (!userDoc.exists()) {
+                throw new IllegalStateException("User profile not found");
+            }
+
+            String oldNfcId = userDoc.getString("nfcId");
+            DocumentReference oldTagRef = null;
+            if (oldNfcId != null && !oldNfcId.isEmpty() && !oldNfcId.equals(newNfcId)) {
+                oldTagRef = db.collection(NfcRoster.COLLECTION_NFC_TAGS).document(oldNfcId);
+                DocumentSnapshot oldTag = transaction.get(oldTagRef);
+                if (oldTag.exists() && !userId.equals(oldTag.getString("uid"))) {
+                    oldTagRef = null;
+                }
+            }
+
+            transaction.update(userRef, "nfcId", newNfcId);
+            if (oldTagRef != null) {
+                transaction.delete(oldTagRef);
+            }
+            transaction.set(newTagRef, nfcTagEntry(userId, userDoc.getString("username"),
+                    userDoc.getString("organisationId")));
+            return null;
+        }).addOnSuccessListener(aVoid ->
+                currentUserStore.applyUpdate(user -> user.setNfcId(newNfcId)));
     }
 
     public Task<Void> updatePassword(String currentPassword, String newPassword) {
@@ -127,70 +428,235 @@ public class UserRepository extends FirebaseRepository {
                 });
     }
 
-    public Task<List<User>> getGlobalLeaderboard(String sortField, int limit) {
-        return db.collection("users")
-                .orderBy(sortField, Query.Direction.DESCENDING)
-                .limit(limit)
-                .get()
-                .continueWith(task -> {
-                    List<User> users = new ArrayList<>();
+    // For callers that have already reauthenticated the user
+    public Task<Void> updatePassword(String newPassword) {
+        if (!isLoggedIn()) return null;
 
-                    if (task.isSuccessful()) {
-                        for (DocumentSnapshot document : task.getResult()) {
-                            User user = document.toObject(User.class);
-                            if (user != null) {
-                                users.add(user);
-                            }
-                        }
-                    }
+        return auth.getCurrentUser().updatePassword(newPassword);
+    }
 
-                    return users;
-                });
+    public Task<Void> updatePoints(int points) {
+        if (!isLoggedIn()) return null;
+
+        return getCurrentUserData().continueWithTask(task -> {
+            if (!task.isSuccessful() || task.getResult() == null) {
+                return Tasks.forException(new IllegalStateException("Failed to get user data"));
+            }
+
+            User user = task.getResult();
+            currentUserStore.applyPointsDelta(points - user.getPoints());
+
+            WriteBatch batch = db.batch();
+            batch.update(db.collection("users").document(user.getUid()), "points", points);
+            batch.set(leaderboardEntryRef(user.getUid()), projectionUpdate(user, "points", points), SetOptions.merge());
+
+            return batch.commit()
+                    .addOnSuccessListener(aVoid ->
+                            leaderboardRepository.submitScores(user, LeaderboardRepository.METRIC_POINTS));
+        });
     }
 
-    public Task<List<User>> getFriendsLeaderboard(String sortField) {
-        if (!isLoggedIn()) {
-            return Tasks.forException(new IllegalStateException("User not logged in"));
-        }
+    public Task<Void> updateStudyTime(long totalMinutes) {
+        if (!isLoggedIn()) return null;
+
+        return getCurrentUserData().continueWithTask(task -> {
+            if (!task.isSuccessful() || task.getResult() == null) {
+                return Tasks.forException(new IllegalStateException("Failed to get user data"));
+            }
+
+            User user = task.getResult();
+            WriteBatch batch = db.batch();
+            batch.update(db.collection("users").document(user.getUid()), "totalStudyTime", totalMinutes);
+            batch.set(leaderboardEntryRef(user.getUid()), projectionUpdate(user, "totalStudyTime", totalMinutes),
+                    SetOptions.merge());
+
+            return batch.commit();
+        });
+    }
+
+    public Task<Void> updateStatsAfterSession(Context context, int pointsEarned, int sessionDurationMinutes) {
+        if (!isLoggedIn()) return null;
 
-        return getCurrentUserData().continueWithTask(userTask -> {
-            if (!userTask.isSuccessful() || userTask.getResult() == null) {
+        // Resolved from the current-user store, so no document read happens here
+        return getCurrentUserData().continueWithTask(task -> {
+            if (!task.isSuccessful() || task.getResult() == null) {
                 return Tasks.forException(new IllegalStateException("Failed to get user data"));
             }
 
-            User currentUser = userTask.getResult();
-            List<String> friendIds = currentUser.getFriends();
+            User user = task.getResult();
+            DocumentReference userRef = db.collection("users").document(user.getUid());
+            long now = System.currentTimeMillis();
+
+            // Streak and consistency depend on the previous study date, derive them locally
+            int previousStreak = user.getStreakDays();
+            int newStreak = calculateStreak(user.getLastStudyDate(), previousStreak, now);
+            boolean isStreak = newStreak > previousStreak;
+            int newMaxStreak = Math.max(user.getMaxStreakDays(), newStreak);
+
+            // Get current week ID for stats
+            String weekId = getCurrentWeekId();
 
-            if (friendIds == null || friendIds.isEmpty()) {
-                List<User> users = new ArrayList<>();
-                users.add(currentUser);
-                return Tasks.forResult(users);
+            // Counters are incremented server-side so concurrent awards are not lost
+            Map<String, Object> updates = new HashMap<>();
+            if (pointsEarned != 0) {
+                updates.put("points", FieldValue.increment(pointsEarned));
+            }
+            updates.put("totalStudyTime", FieldValue.increment(sessionDurationMinutes));
+            updates.put("sessionsCompleted", FieldValue.increment(1));
+            updates.put("lastStudyDate", now);
+            updates.put("streakDays", newStreak);
+            updates.put("maxStreakDays", newMaxStreak);
+
+            // Update completed sessions count and weekly stats only if points were earned (successful session)
+            if (pointsEarned > 0) {
+                updates.put("completedSessions", FieldValue.increment(1));
+                updates.put("weeklyStats." + weekId, FieldValue.increment(pointsEarned));
             }
 
-            if (!friendIds.contains(currentUser.getUid())) {
-                friendIds.add(currentUser.getUid());
+            // Apply the same changes to the cached user so the consistency score and
+            // achievement checks below see post-session values
+            currentUserStore.applyUpdate(cached -> {
+                cached.setPoints(cached.getPoints() + pointsEarned);
+                cached.setTotalStudyTime(cached.getTotalStudyTime() + sessionDurationMinutes);
+                cached.incrementSessionsCompleted();
+                cached.setLastStudyDate(now);
+                cached.setStreakDays(newStreak);
+                cached.setMaxStreakDays(newMaxStreak);
+                if (pointsEarned > 0) {
+                    cached.incrementCompletedSessions();
+                    cached.addWeeklyPoints(weekId, pointsEarned);
+                }
+            });
+
+            int newConsistencyScore = calculateConsistencyScore(user);
+            updates.put("consistencyScore", newConsistencyScore);
+            user.setConsistencyScore(newConsistencyScore);
+
+            // Leaderboard projection gets the same increments
+            Map<String, Object> projection = LeaderboardRepository.identityOf(
+                    user.getUid(), user.getUsername(), user.getOrganisationId());
+            if (pointsEarned != 0) {
+                projection.put("points", FieldValue.increment(pointsEarned));
             }
+            projection.put("totalStudyTime", FieldValue.increment(sessionDurationMinutes));
+            projection.put("streakDays", newStreak);
 
-            return db.collection("users")
-                    .whereIn("uid", friendIds)
-                    .get()
-                    .continueWith(task -> {
-                        List<User> users = new ArrayList<>();
-
-                        if (task.isSuccessful()) {
-                            for (DocumentSnapshot document : task.getResult()) {
-                                User user = document.toObject(User.class);
-                                if (user != null) {
-                                    users.add(user);
-                                }
-                            }
-                        }
+            // Single batch, no read-modify-write round trip
+            WriteBatch batch = db.batch();
+            batch.update(userRef, updates);
+            batch.set(leaderboardEntryRef(user.getUid()), projection, SetOptions.merge());
 
-                        return users;
-                    });
+            return batch.commit().continueWithTask(updateTask -> {
+                if (!updateTask.isSuccessful()) {
+                    return updateTask;
+                }
+
+                // Points reach the board through the award path, only the set-style metrics go here
+                leaderboardRepository.submitScores(user,
+                        LeaderboardRepository.METRIC_STUDY_TIME, LeaderboardRepository.METRIC_STREAK);
+
+                // Check for achievements after update
+                AchievementManager achievementManager = AchievementManager.getInstance();
+                achievementManager.checkSessionAchievements(context, user, sessionDurationMinutes);
+
+                if (isStreak) {
+                    achievementManager.checkStreakAchievements(context, user);
+                }
+
+                achievementManager.checkConsistencyAchievements(context, user);
+
+                return updateTask;
+            });
         });
     }
 
+    public Task<Void> updateEventAttendance(Context context) {
+        if (!isLoggedIn()) return null;
+
+        return db.collection("users")
+                .document(getCurrentUserId())
+                .update("eventsAttended", FieldValue.increment(1))
+                .continueWithTask(updateTask -> {
+                    if (!updateTask.isSuccessful()) {
+                        return updateTask;
+                    }
+
+                    // Update local user object
+                    currentUserStore.applyUpdate(User::incrementEventsAttended);
+
+                    // Check for achievements
+                    User user = currentUserStore.getCachedUser();
+                    if (user != null) {
+                        AchievementManager achievementManager = AchievementManager.getInstance();
+                        achievementManager.checkEventAchievements(context, user);
+                    }
+
+                    return updateTask;
+                });
+    }
+
+    // Reads the slim leaderboard projections rather than full user documents
+    public Task<List<LeaderboardEntry>> getGlobalLeaderboard(String sortField, int limit) {
+        // Projections are backfilled for every user first, so dormant accounts still rank
+        return singleFlight.execute("leaderboard:" + sortField + ":" + limit, () -> DataMigrations.getInstance()
+                .backfillLeaderboardEntries()
+                .continueWithTask(migration -> db.collection(LeaderboardRepository.COLLECTION_LEADERBOARD_ENTRIES)
+                        .orderBy(sortField, Query.Direction.DESCENDING)
+                        .limit(limit)
+                        .get())
+                .continueWith(task -> {
+                    List<LeaderboardEntry> entries = new ArrayList<>();
+
+                    if (task.isSuccessful()) {
+                        int rank = 1;
+                        for (DocumentSnapshot document : task.getResult()) {
+                            // A projection without a name would show as a blank row
+                            if (document.getString("username") == null) continue;
+
+                            LeaderboardEntry entry = LeaderboardRepository.entryFromProjection(document);
+                            entry.setRank(rank++);
+                            entries.add(entry);
+                        }
+                    }
+
+                    return entries;
+                }));
+    }
+
+    /**
+     * Rank within the organisation by points, as one count() aggregation of users with more points.
+     * Users tied on points share a rank. Cached per org and points value for a few minutes.
+     */
+    public Task<Integer> getOrganisationRank(String orgId, int points) {
+        String key = orgId + ":" + points;
+
+        synchronized (rankCache) {
+            CachedRank cached = rankCache.get(key);
+            if (cached != null && System.currentTimeMillis() - cached.fetchedAt < RANK_CACHE_TTL_MILLIS) {
+                return Tasks.forResult(cached.rank);
+            }
+        }
+
+        return singleFlight.execute("rank:" + key, () -> db.collection("users")
+                .whereEqualTo("organisationId", orgId)
+                .whereGreaterThan("points", points)
+                .count()
+                .get(AggregateSource.SERVER)
+                .continueWith(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+
+                    int rank = (int) task.getResult().getCount() + 1;
+                    synchronized (rankCache) {
+                        // Entries for earlier point totals in this org will not be asked for again
+                        rankCache.keySet().removeIf(cachedKey -> cachedKey.startsWith(orgId + ":"));
+                        rankCache.put(key, new CachedRank(rank, System.currentTimeMillis()));
+                    }
+                    return rank;
+                }));
+    }
+
     public Task<Object> addFriend(Context context, String friendId) {
         if (!isLoggedIn()) return null;
 
@@ -224,7 +690,7 @@ public class UserRepository extends FirebaseRepository {
                 }
 
                 // Update local user object
-                user.addFriend(friendId);
+                currentUserStore.applyFriendAdded(friendId);
 
                 // Check for social achievements
                 AchievementRepository achievementRepository = AchievementRepository.getInstance();
@@ -263,24 +729,221 @@ public class UserRepository extends FirebaseRepository {
             }).continueWith(updateTask -> {
                 if (updateTask.isSuccessful()) {
                     // Update local user object
-                    if (user.getFriends() != null) {
-                        user.getFriends().remove(friendId);
-                    }
+                    currentUserStore.applyFriendRemoved(friendId);
                 }
                 return null;
             });
         });
     }
 
+    // Add points to a specific user
+    public Task<Void> addPointsToUser(String userId, int pointsToAdd) {
+        return db.collection("users").document(userId).get().continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                return Tasks.forException(task.getException());
+            }
+            if (!task.getResult().exists()) {
+                return Tasks.forException(new IllegalArgumentException("User not found"));
+            }
+
+            DocumentSnapshot userDoc = task.getResult();
+            WriteBatch batch = db.batch();
+            stagePointsDelta(batch, userId, userDoc.getString("username"), userDoc.getString("organisationId"),
+                    pointsToAdd);
+
+            return batch.commit()
+                    .addOnSuccessListener(aVoid -> onPointsDeltaCommitted(userId, pointsToAdd));
+        });
+    }
+
+    /**
+     * Adds a points change for the user, and its leaderboard projection, to a batch the caller commits
+     * along with its own writes. Call onPointsDeltaCommitted once the batch succeeds.
+     */
+    void stagePointsDelta(WriteBatch batch, User user, int delta) {
+        stagePointsDelta(batch, user.getUid(), user.getUsername(), user.getOrganisationId(), delta);
+    }
+
+    private void stagePointsDelta(WriteBatch batch, String userId, String username, String organisationId,
+                                  int delta) {
+        if (userId.equals(getCurrentUserId())) {
+            currentUserStore.applyPointsDelta(delta);
+        }
+
+        batch.update(db.collection("users").document(userId), "points", FieldValue.increment(delta));
+        batch.set(leaderboardEntryRef(userId), LeaderboardRepository.projectionUpdate(
+                userId, username, organisationId, "points", FieldValue.increment(delta)), SetOptions.merge());
+    }
+
+    void onPointsDeltaCommitted(String userId, int delta) {
+        Map<String, Long> deltas = new HashMap<>();
+        deltas.put(userId, (long) delta);
+        leaderboardRepository.applyDeltas(currentOrganisationId(), LeaderboardRepository.METRIC_POINTS, deltas);
+    }
+
+    /**
+     * Award points to a session's participants, some known by uid and some (older entries) only by username.
+     * Usernames are resolved first and merged with the uids, so a participant listed both ways is credited once.
+     * Projection names come from the participant list and the organisation from the host, whose roster the
+     * participants were drawn from, so no user documents are read before the awards are committed.
+     */
+    public Task<Void> awardSessionPoints(String sessionId, Map<String, String> usernamesById,
+                                         Collection<String> usernamesWithoutId, int pointsPerUser) {
+        if (sessionId == null) {
+            return Tasks.forException(new IllegalArgumentException("Session id is required"));
+        }
+
+        List<String> names = new ArrayList<>(usernamesWithoutId);
+        List<Task<String>> lookups = new ArrayList<>();
+        for (String username : names) {
+            lookups.add(resolveUserId(username));
+        }
+
+        return Tasks.whenAllSuccess(lookups).continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                return Tasks.forException(task.getException());
+            }
+
+            Map<String, String> recipients = new LinkedHashMap<>();
+            for (Map.Entry<String, String> participant : usernamesById.entrySet()) {
+                if (participant.getKey() == null || participant.getKey().isEmpty()) {
+                    Log.w(TAG, "Empty userId, skipping");
+                    continue;
+                }
+                recipients.put(participant.getKey(), participant.getValue());
+            }
+
+            List<Object> resolved = task.getResult();
+            for (int i = 0; i < resolved.size(); i++) {
+                if (resolved.get(i) != null) {
+                    recipients.putIfAbsent((String) resolved.get(i), names.get(i));
+                }
+            }
+
+            Log.d(TAG, "Awarding session points to: " + recipients.keySet() + ", points per user: " + pointsPerUser);
+            return awardRecipients(db.collection(SessionRepository.COLLECTION_SESSIONS).document(sessionId),
+                    recipients, pointsPerUser);
+        });
+    }
+
+    // One batch is all-or-nothing. Awards spread over several batches first drop whoever a batch committed
+    // by an earlier attempt already credited, as recorded on the session, so retrying a partial failure is safe.
+    private Task<Void> awardRecipients(DocumentReference sessionRef, Map<String, String> recipients, int pointsPerUser) {
+        if (recipients.size() <= AWARDS_PER_BATCH) {
+            return commitAwards(sessionRef, recipients, pointsPerUser);
+        }
+
+        return sessionRef.get().continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                return Tasks.forException(task.getException());
+            }
+
+            Map<String, String> remaining = new LinkedHashMap<>(recipients);
+            Object awarded = task.getResult().get(FIELD_POINTS_AWARDED_TO);
+            if (awarded instanceof List) {
+                remaining.keySet().removeAll((List<?>) awarded);
+            }
+            return commitAwards(sessionRef, remaining, pointsPerUser);
+        });
+    }
+
+    private Task<Void> commitAwards(DocumentReference sessionRef, Map<String, String> recipients, int pointsPerUser) {
+        String weekId = getCurrentWeekId();
+        String organisationId = currentOrganisationId();
+        Map<String, Long> deltas = new LinkedHashMap<>();
+        List<Task<Void>> commits = new ArrayList<>();
+        WriteBatch batch = db.batch();
+        List<String> batchIds = new ArrayList<>();
+
+        for (Map.Entry<String, String> recipient : recipients.entrySet()) {
+            String userId = recipient.getKey();
+
+            // Flush first so a user's document and projection always land in the same batch
+            if (batchIds.size() == AWARDS_PER_BATCH) {
+                commits.add(commitAwardBatch(batch, sessionRef, batchIds));
+                batch = db.batch();
+                batchIds = new ArrayList<>();
+            }
+
+            // One update per user carries both increments, plus the matching projection increment
+            Map<String, Object> updates = new HashMap<>();
+            updates.put("points", FieldValue.increment(pointsPerUser));
+            updates.put("weeklyStats." + weekId, FieldValue.increment(pointsPerUser));
+            batch.update(db.collection("users").document(userId), updates);
+            batch.set(leaderboardEntryRef(userId), LeaderboardRepository.projectionUpdate(
+                    userId, recipient.getValue(), organisationId,
+                    "points", FieldValue.increment(pointsPerUser)), SetOptions.merge());
+            batchIds.add(userId);
+            deltas.put(userId, (long) pointsPerUser);
+
+            if (userId.equals(getCurrentUserId())) {
+                currentUserStore.applyUpdate(user -> {
+                    user.setPoints(user.getPoints() + pointsPerUser);
+                    user.addWeeklyPoints(weekId, pointsPerUser);
+                });
+            }
+        }
+
+        if (!batchIds.isEmpty()) {
+            commits.add(commitAwardBatch(batch, sessionRef, batchIds));
+        }
+
+        return Tasks.whenAll(commits).addOnCompleteListener(task -> {
+            if (task.isSuccessful()) {
+                Log.d(TAG, "Batch committed successfully for point awarding");
+                leaderboardRepository.applyDeltas(organisationId, LeaderboardRepository.METRIC_POINTS, deltas);
+            } else {
+                Log.e(TAG, "Batch failed for point awarding", task.getException());
+            }
+        });
+    }
+
+    // The batch records its own recipients on the session, so the marker commits exactly when the awards do
+    private Task<Void> commitAwardBatch(WriteBatch batch, DocumentReference sessionRef, List<String> userIds) {
+        batch.update(sessionRef, FIELD_POINTS_AWARDED_TO, FieldValue.arrayUnion(userIds.toArray()));
+        return batch.commit();
+    }
+
     public Task<Void> initializeUserStats() {
         if (!isLoggedIn()) return null;
 
-        return getCurrentUserData().continueWithTask(task -> {
+        String userId = getCurrentUserId();
+        if (userId.equals(initializedStatsUid)) {
+            return Tasks.forResult(null);
+        }
+
+        return singleFlight.execute("initStats:" + userId, () -> getCurrentUserData().continueWithTask(task -> {
             if (!task.isSuccessful() || task.getResult() == null) {
                 return Tasks.forException(new IllegalStateException("Failed to get user data"));
             }
 
             User user = task.getResult();
+
+            // Backfill the NFC roster for tags registered before it existed
+            if (user.getNfcId() != null && !user.getNfcId().isEmpty()) {
+                db.collection(NfcRoster.COLLECTION_NFC_TAGS)
+                        .document(user.getNfcId())
+                        .set(nfcTagEntry(userId, user.getUsername(), user.getOrganisationId()))
+                        .addOnFailureListener(e -> Log.e(TAG, "Failed to backfill NFC roster", e));
+            }
+
+            // Index the username for accounts that predate the index, unless another account holds it
+            if (user.getUsername() != null) {
+                claimUsernameIfAbsent(userId, user.getUsername())
+                        .addOnFailureListener(e -> Log.e(TAG, "Failed to backfill username index", e));
+            }
+
+            // Create the leaderboard projection for accounts that predate it, then move a legacy
+            // inline avatar into the avatar store, which merges its hash into that projection
+            ensureLeaderboardEntry(userId)
+                    .addOnFailureListener(e -> Log.e(TAG, "Failed to backfill leaderboard entry", e))
+                    .addOnCompleteListener(entryTask -> {
+                        if (user.getAvatarHash() == null && user.getProfileImageBase64() != null
+                                && !user.getProfileImageBase64().isEmpty()) {
+                            migrateInlineAvatar(user, user.getProfileImageBase64());
+                        }
+                    });
+
             Map<String, Object> updates = new HashMap<>();
 
             if (user.getAchievements() == null) {
@@ -324,21 +987,218 @@ public class UserRepository extends FirebaseRepository {
             }
 
             if (updates.isEmpty()) {
+                initializedStatsUid = userId;
                 return Tasks.forResult(null);
             }
 
             return db.collection("users")
                     .document(user.getUid())
-                    .update(updates);
-        });
+                    .update(updates)
+                    .addOnSuccessListener(aVoid -> initializedStatsUid = userId);
+        }));
     }
 
     public void signOut() {
         auth.signOut();
-        cachedCurrentUser = null;
+        currentUserStore.clear();
+        FriendsLeaderboardCache.getInstance().clear();
+        NfcRoster.getInstance().stop();
+        initializedStatsUid = null;
+        synchronized (rankCache) {
+            rankCache.clear();
+        }
+    }
+
+    private static class CachedRank {
+        final int rank;
+        final long fetchedAt;
+
+        CachedRank(int rank, long fetchedAt) {
+            this.rank = rank;
+            this.fetchedAt = fetchedAt;
+        }
     }
 
     // Helper methods
+
+    /**
+     * Writes the full projection from the user document when it is missing, or when it was only ever
+     * created by merged increments and so lacks a uid or a counter. A complete projection is left
+     * alone, so increments from other devices are never overwritten. The user document is read in
+     * the same transaction, so the counters copied from it are consistent with the projection's.
+     */
+    private Task<Void> ensureLeaderboardEntry(String userId) {
+        DocumentReference userRef = db.collection("users").document(userId);
+        DocumentReference entryRef = leaderboardEntryRef(userId);
+
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot entry = transaction.get(entryRef);
+            if (entry.exists() && entry.getString("uid") != null
+                    && entry.contains(LeaderboardRepository.METRIC_POINTS)
+                    && entry.contains(LeaderboardRepository.METRIC_STUDY_TIME)
+                    && entry.contains(LeaderboardRepository.METRIC_STREAK)) {
+                return null;
+            }
+
+            DocumentSnapshot userDoc = transaction.get(userRef);
+            User user = userDoc.toObject(User.class);
+            if (user == null) return null;
+            user.setUid(userId);
+
+            Map<String, Object> projection = LeaderboardRepository.projectionOf(user);
+            if (entry.getString("avatarHash") != null) {
+                projection.put("avatarHash", entry.getString("avatarHash"));
+            }
+            transaction.set(entryRef, projection);
+            return null;
+        });
+    }
+
+    private void migrateInlineAvatar(User user, String base64Image) {
+        try {
+            byte[] imageBytes = Base64.decode(base64Image, Base64.DEFAULT);
+
+            avatarRepository.setUserAvatar(user, imageBytes)
+                    .addOnSuccessListener(hash -> currentUserStore.applyUpdate(user -> {
+                        user.setAvatarHash(hash);
+                        user.setProfileImageBase64(null);
+                    }))
+                    .addOnFailureListener(e -> Log.e(TAG, "Failed to migrate inline avatar", e));
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to decode inline avatar", e);
+        }
+    }
+
+    private DocumentReference leaderboardEntryRef(String userId) {
+        return db.collection(LeaderboardRepository.COLLECTION_LEADERBOARD_ENTRIES).document(userId);
+    }
+
+    private static Map<String, Object> projectionUpdate(User user, String field, Object value) {
+        return LeaderboardRepository.projectionUpdate(
+                user.getUid(), user.getUsername(), user.getOrganisationId(), field, value);
+    }
+
+    private String currentOrganisationId() {
+        User user = currentUserStore.getCachedUser();
+        return user != null ? user.getOrganisationId() : null;
+    }
+
+    private static String usernameKey(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Keys are document ids in the usernames index, which cannot contain "/" or be ".", ".." or "__...__"
+    private static boolean isValidUsernameKey(String key) {
+        return !key.isEmpty() && !key.contains("/") && !key.equals(".") && !key.equals("..")
+                && !(key.startsWith("__") && key.endsWith("__"));
+    }
+
+    static Map<String, Object> nfcTagEntry(String userId, String username, String organisationId) {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("uid", userId);
+        entry.put("username", username);
+        entry.put("organisationId", organisationId);
+        return entry;
+    }
+
+    private static Map<String, Object> usernameEntry(String userId) {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("uid", userId);
+        return entry;
+    }
+
+    private int calculateStreak(long lastStudyDate, int currentStreak, long now) {
+        // If this is the first study session ever
+        if (lastStudyDate == 0) {
+            return 1;
+        }
+
+        // Calculate days between last study and now
+        long dayDifference = calculateDayDifference(lastStudyDate, now);
+
+        if (dayDifference == 1) {
+            // Consecutive day, increment streak
+            return currentStreak + 1;
+        } else if (dayDifference == 0) {
+            // Same day, maintain streak
+            return Math.max(currentStreak, 1);
+        } else {
+            // Streak broken, reset
+            return 1;
+        }
+    }
+
+    private long calculateDayDifference(long timestamp1, long timestamp2) {
+        // Convert timestamps to Calendar instances
+        Calendar cal1 = Calendar.getInstance();
+        Calendar cal2 = Calendar.getInstance();
+        cal1.setTimeInMillis(timestamp1);
+        cal2.setTimeInMillis(timestamp2);
+
+        // Clear time fields to compare only dates
+        cal1.set(Calendar.HOUR_OF_DAY, 0);
+        cal1.set(Calendar.MINUTE, 0);
+        cal1.set(Calendar.SECOND, 0);
+        cal1.set(Calendar.MILLISECOND, 0);
+
+        cal2.set(Calendar.HOUR_OF_DAY, 0);
+        cal2.set(Calendar.MINUTE, 0);
+        cal2.set(Calendar.SECOND, 0);
+        cal2.set(Calendar.MILLISECOND, 0);
+
+        // Calculate days difference
+        long diffMillis = cal2.getTimeInMillis() - cal1.getTimeInMillis();
+        return diffMillis / ONE_DAY_MILLIS;
+    }
+
+    private int calculateConsistencyScore(User user) {
+        if (user == null) return 0;
+
+        // Get study days in the last 2 weeks
+        int studyDaysInPast2Weeks = countStudyDaysInPast2Weeks(user);
+
+        // Calculate consistency score (study days / 14) * 100
+        return Math.min(100, (studyDaysInPast2Weeks * 100) / 14);
+    }
+
+    private int countStudyDaysInPast2Weeks(User user) {
+        if (user == null || user.getWeeklyStats() == null) return 0;
+
+        // Get current and previous week IDs
+        String currentWeekId = getCurrentWeekId();
+        String previousWeekId = getPreviousWeekId();
+
+        // Count days in the past 2 weeks
+        int daysCount = 0;
+
+        // Count days in current week
+        if (user.getWeeklyStats().containsKey(currentWeekId)) {
+            daysCount += Math.min(7, user.getWeeklyStats().get(currentWeekId));
+        }
+
+        // Count days in previous week
+        if (user.getWeeklyStats().containsKey(previousWeekId)) {
+            daysCount += Math.min(7, user.getWeeklyStats().get(previousWeekId));
+        }
+
+        return daysCount;
+    }
+
+    private String getCurrentWeekId() {
+        Calendar calendar = Calendar.getInstance();
+        int week = calendar.get(Calendar.WEEK_OF_YEAR);
+        int year = calendar.get(Calendar.YEAR);
+        return year + "-" + String.format(Locale.US, "%02d", week);
+    }
+
+    private String getPreviousWeekId() {
+        Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.WEEK_OF_YEAR, -1);
+        int week = calendar.get(Calendar.WEEK_OF_YEAR);
+        int year = calendar.get(Calendar.YEAR);
+        return year + "-" + String.format(Locale.US, "%02d", week);
+    }
+
     private Bitmap getResizedBitmap(Bitmap image, int maxSize) {
         int width = image.getWidth();
         int height = image.getHeight();
@@ -353,4 +1213,4 @@ public class UserRepository extends FirebaseRepository {
         }
         return Bitmap.createScaledBitmap(image, width, height, true);
     }
-}
\ No newline at end of file
+}
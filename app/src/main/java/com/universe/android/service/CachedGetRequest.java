@@ -0,0 +1,58 @@
+package com.universe.android.service;
+
+import android.util.Log;
+
+import com.android.volley.Cache;
+import com.android.volley.NetworkResponse;
+import com.android.volley.Response;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.HttpHeaderParser;
+
+/**
+ * GET served stale-while-revalidate from the queue's disk cache.
+ * A copy younger than FRESH_MILLIS is returned without touching the network. An older one, up to
+ * MAX_STALE_MILLIS, is delivered at once and then revalidated with If-None-Match / If-Modified-Since,
+ * so the listener only hears a second time when the server answers with a new body rather than a 304.
+ * Cache headers sent by the server take precedence over these defaults.
+ */
+public class CachedGetRequest<T> extends ParsedGetRequest<T> {
+    private static final String TAG = "CachedGetRequest";
+
+    static final long FRESH_MILLIS = 60 * 1000; // 1 minute
+    static final long MAX_STALE_MILLIS = 7 * 24 * 60 * 60 * 1000L; // 1 week
+
+    public CachedGetRequest(String url, BodyParser<T> parser, Response.Listener<T> listener,
+                            Response.ErrorListener errorListener) {
+        super(url, parser, listener, errorListener);
+        setShouldCache(true);
+    }
+
+    // A failed revalidation isn't an error for callers that already have the cached copy
+    @Override
+    public void deliverError(VolleyError error) {
+        if (hasHadResponseDelivered()) {
+            Log.w(TAG, "Revalidation failed, keeping cached response for " + getUrl(), error);
+            return;
+        }
+        super.deliverError(error);
+    }
+
+    @Override
+    protected Cache.Entry cacheEntryFor(NetworkResponse response) {
+        Cache.Entry entry = HttpHeaderParser.parseCacheHeaders(response);
+        if (entry == null) {
+            return null; // no-store or no-cache
+        }
+
+        boolean serverSetLifetime = response.headers != null
+                && (response.headers.containsKey("Cache-Control") || response.headers.containsKey("Expires"));
+
+        // The ETag / Last-Modified validators are kept either way
+        if (!serverSetLifetime) {
+            long now = System.currentTimeMillis();
+            entry.softTtl = now + FRESH_MILLIS;
+            entry.ttl = now + MAX_STALE_MILLIS;
+        }
+        return entry;
+    }
+}
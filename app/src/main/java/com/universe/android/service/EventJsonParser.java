@@ -0,0 +1,175 @@
+package com.universe.android.service;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import com.universe.android.model.Event;
+import com.universe.android.model.EventPage;
+import com.universe.android.util.EventDateFormat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Streams event JSON from the API straight into Event objects, without building a JSONArray
+ * or JSONObject tree first. Called on Volley's network threads, never the main thread.
+ */
+public final class EventJsonParser {
+
+    private EventJsonParser() {
+    }
+
+    public static List<Event> parseEventList(byte[] data, String charset) throws IOException {
+        try (JsonReader reader = readerFor(data, charset)) {
+            return readEventArray(reader);
+        }
+    }
+
+    /**
+     * A page from the paged endpoint, {"events": [...], "nextPageToken": "..."}. A plain array from a
+     * server without paging is taken as a single, last page.
+     */
+    public static EventPage parseEventPage(byte[] data, String charset) throws IOException {
+        try (JsonReader reader = readerFor(data, charset)) {
+            if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                return new EventPage(readEventArray(reader), null);
+            }
+
+            List<Event> events = new ArrayList<>();
+            String nextPageToken = null;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.skipValue();
+                } else if (name.equals("events")) {
+                    events = readEventArray(reader);
+                } else if (name.equals("nextPageToken")) {
+                    nextPageToken = reader.nextString();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return new EventPage(events, nextPageToken);
+        }
+    }
+
+    public static Event parseEvent(byte[] data, String charset) throws IOException {
+        try (JsonReader reader = readerFor(data, charset)) {
+            return readEvent(reader);
+        }
+    }
+
+    private static JsonReader readerFor(byte[] data, String charset) throws IOException {
+        return new JsonReader(new InputStreamReader(new ByteArrayInputStream(data), charset));
+    }
+
+    private static List<Event> readEventArray(JsonReader reader) throws IOException {
+        List<Event> events = new ArrayList<>();
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            events.add(readEvent(reader));
+        }
+        reader.endArray();
+        return events;
+    }
+
+    private static Event readEvent(JsonReader reader) throws IOException {
+        String id = null;
+        String title = null;
+        String description = "No description available";
+        String dateTime = null;
+        String location = "TBD";
+        String address = "Address unavailable";
+        double latitude = 0.0;
+        double longitude = 0.0;
+        int pointsPrice = 500; // Default points price
+        int availableTickets = 10; // Default available tickets
+        String organizer = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+
+            // Nulls count as missing, so the defaults above apply
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+                continue;
+            }
+
+            switch (name) {
+                case "eventId":
+                    id = reader.nextString();
+                    break;
+                case "eventName":
+                    title = reader.nextString();
+                    break;
+                case "description":
+                    description = reader.nextString();
+                    break;
+                case "eventDateTime":
+                    dateTime = reader.nextString();
+                    break;
+                case "ticketPrice":
+                    pointsPrice = (int) reader.nextDouble();
+                    break;
+                case "availableTickets":
+                    availableTickets = reader.nextInt();
+                    break;
+                case "organizer":
+                    organizer = reader.nextString();
+                    break;
+                case "venue":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String venueField = reader.nextName();
+                        if (reader.peek() == JsonToken.NULL) {
+                            reader.skipValue();
+                        } else if (venueField.equals("name")) {
+                            location = reader.nextString();
+                        } else if (venueField.equals("address")) {
+                            address = reader.nextString();
+                        } else if (venueField.equals("latitude")) {
+                            latitude = reader.nextDouble();
+                        } else if (venueField.equals("longitude")) {
+                            longitude = reader.nextDouble();
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+
+        if (id == null || title == null || dateTime == null) {
+            throw new IOException("Event is missing eventId, eventName or eventDateTime");
+        }
+
+        // Raw value as the date when it isn't in the API format
+        Date parsed = EventDateFormat.parse(dateTime);
+        String date = parsed != null ? EventDateFormat.formatDate(parsed) : null;
+        String time = parsed != null ? EventDateFormat.formatTime(parsed) : null;
+
+        Event event = new Event(
+                id, title, description, date != null ? date : dateTime, time != null ? time : "",
+                location, address, latitude, longitude, pointsPrice, availableTickets
+        );
+
+        if (organizer != null) {
+            event.setOrganizer(organizer);
+        }
+        return event;
+    }
+}
@@ -0,0 +1,53 @@
+package com.universe.android.service;
+
+import android.content.Context;
+
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.toolbox.BasicNetwork;
+import com.android.volley.toolbox.DiskBasedCache;
+import com.android.volley.toolbox.HurlStack;
+
+import java.io.File;
+
+/**
+ * The app's single HTTP stack: one Volley queue for the whole process, with a fixed number of
+ * network dispatcher threads, one disk cache, and persistent connections reused across requests.
+ */
+public class NetworkClient {
+    // Mac IP address where Docker is running
+    private static final String DOCKER_IP = "172.21.141.161";
+    private static final String API_PORT = "8080";
+    public static final String API_BASE_URL = "http://" + DOCKER_IP + ":" + API_PORT + "/api";
+
+    private static final int NETWORK_THREADS = 4;
+    private static final int CACHE_SIZE_BYTES = 5 * 1024 * 1024;
+    private static final String CACHE_DIR = "volley";
+
+    private static NetworkClient instance;
+    private final RequestQueue requestQueue;
+
+    private NetworkClient(Context context) {
+        // HttpURLConnection keeps idle sockets alive in its pool; allow one per dispatcher thread
+        System.setProperty("http.keepAlive", "true");
+        System.setProperty("http.maxConnections", String.valueOf(NETWORK_THREADS));
+
+        File cacheDir = new File(context.getCacheDir(), CACHE_DIR);
+        requestQueue = new RequestQueue(
+                new DiskBasedCache(cacheDir, CACHE_SIZE_BYTES),
+                new BasicNetwork(new HurlStack()),
+                NETWORK_THREADS);
+        requestQueue.start();
+    }
+
+    public static synchronized NetworkClient getInstance(Context context) {
+        if (instance == null) {
+            instance = new NetworkClient(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    public <T> Request<T> add(Request<T> request) {
+        return requestQueue.add(request);
+    }
+}
@@ -0,0 +1,55 @@
+package com.universe.android.service;
+
+import com.android.volley.Cache;
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
+import com.android.volley.Request;
+import com.android.volley.Response;
+import com.android.volley.toolbox.HttpHeaderParser;
+
+import java.io.IOException;
+
+/**
+ * GET whose body is parsed by the caller's parser on the network dispatcher thread,
+ * so only the finished result reaches the main thread
+ */
+public class ParsedGetRequest<T> extends Request<T> {
+    private static final String DEFAULT_CHARSET = "utf-8";
+
+    public interface BodyParser<T> {
+        T parse(byte[] data, String charset) throws IOException;
+    }
+
+    private final BodyParser<T> parser;
+    private final Response.Listener<T> listener;
+
+    public ParsedGetRequest(String url, BodyParser<T> parser, Response.Listener<T> listener,
+                            Response.ErrorListener errorListener) {
+        super(Request.Method.GET, url, errorListener);
+        this.parser = parser;
+        this.listener = listener;
+
+        // Longer timeout for development, as for the other API calls
+        setRetryPolicy(new DefaultRetryPolicy(15000, 1, DefaultRetryPolicy.DEFAULT_BACKOFF_MULT));
+    }
+
+    @Override
+    protected Response<T> parseNetworkResponse(NetworkResponse response) {
+        try {
+            String charset = HttpHeaderParser.parseCharset(response.headers, DEFAULT_CHARSET);
+            return Response.success(parser.parse(response.data, charset), cacheEntryFor(response));
+        } catch (IOException | RuntimeException e) {
+            return Response.error(new ParseError(e));
+        }
+    }
+
+    protected Cache.Entry cacheEntryFor(NetworkResponse response) {
+        return HttpHeaderParser.parseCacheHeaders(response);
+    }
+
+    @Override
+    protected void deliverResponse(T response) {
+        listener.onResponse(response);
+    }
+}
@@ -0,0 +1,184 @@
+package com.universe.android.util;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.Base64;
+import android.util.LruCache;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.universe.android.R;
+import com.universe.android.repository.AvatarRepository;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Process-wide avatar pipeline: decoded bitmaps are kept in a byte-sized LruCache keyed by uid, avatar
+ * hash and size bucket, decoding runs off the main thread, downsampled to the target view and in RGB_565.
+ * A large view therefore never reuses the small bitmap decoded for a list row.
+ * Binding an ImageView again, or calling cancel() from onViewRecycled, drops its pending request.
+ */
+public class AvatarLoader {
+    private static final int DEFAULT_SIZE_PX = 128;
+    private static final int DECODE_THREADS = 2;
+
+    private static AvatarLoader instance;
+
+    private final LruCache<String, Bitmap> memoryCache;
+    private final ExecutorService decodeExecutor;
+    private final AvatarRepository avatarRepository;
+
+    private AvatarLoader() {
+        // An eighth of the heap, measured in bytes of decoded pixels
+        int cacheBytes = (int) Math.min(Runtime.getRuntime().maxMemory() / 8, Integer.MAX_VALUE);
+        memoryCache = new LruCache<String, Bitmap>(cacheBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getByteCount();
+            }
+        };
+        decodeExecutor = Executors.newFixedThreadPool(DECODE_THREADS);
+        avatarRepository = AvatarRepository.getInstance();
+    }
+
+    public static synchronized AvatarLoader getInstance() {
+        if (instance == null) {
+            instance = new AvatarLoader();
+        }
+        return instance;
+    }
+
+    private static class Request {
+        volatile boolean cancelled = false;
+    }
+
+    /**
+     * Shows the avatar in the view, or the default image when the user has none.
+     * Legacy inline base64 images are still accepted for users not yet migrated.
+     */
+    public void load(ImageView view, String userId, String avatarHash, String legacyBase64) {
+        cancel(view);
+
+        int bucket = sizeBucket(targetSize(view));
+        String key = cacheKey(userId, avatarHash, legacyBase64, bucket);
+        if (key == null) {
+            view.setImageResource(R.drawable.ic_launcher_foreground);
+            return;
+        }
+
+        Bitmap cached = memoryCache.get(key);
+        if (cached != null) {
+            view.setImageBitmap(cached);
+            return;
+        }
+
+        view.setImageResource(R.drawable.ic_launcher_foreground);
+
+        Request request = new Request();
+        view.setTag(R.id.avatar_request, request);
+
+        decode(key, avatarHash, legacyBase64, bucket, request)
+                .addOnSuccessListener(bitmap -> {
+                    // Dropped if the view was rebound or recycled in the meantime
+                    if (request.cancelled || view.getTag(R.id.avatar_request) != request) return;
+
+                    view.setTag(R.id.avatar_request, null);
+                    if (bitmap != null) {
+                        view.setImageBitmap(bitmap);
+                    }
+                });
+    }
+
+    /**
+     * Decoded bitmap for callers that render it themselves; targetSizePx of 0 uses the default size
+     */
+    public Task<Bitmap> loadBitmap(String userId, String avatarHash, String legacyBase64, int targetSizePx) {
+        int bucket = sizeBucket(targetSizePx > 0 ? targetSizePx : DEFAULT_SIZE_PX);
+        String key = cacheKey(userId, avatarHash, legacyBase64, bucket);
+        if (key == null) {
+            return Tasks.forResult(null);
+        }
+
+        Bitmap cached = memoryCache.get(key);
+        if (cached != null) {
+            return Tasks.forResult(cached);
+        }
+
+        return decode(key, avatarHash, legacyBase64, bucket, new Request());
+    }
+
+    public void cancel(ImageView view) {
+        Object pending = view.getTag(R.id.avatar_request);
+        if (pending instanceof Request) {
+            ((Request) pending).cancelled = true;
+        }
+        view.setTag(R.id.avatar_request, null);
+    }
+
+    private Task<Bitmap> decode(String key, String avatarHash, String legacyBase64, int targetSize, Request request) {
+        Task<byte[]> bytes = avatarHash != null && !avatarHash.isEmpty()
+                ? avatarRepository.getAvatar(avatarHash)
+                : Tasks.forResult(legacyBase64).continueWith(decodeExecutor,
+                        task -> Base64.decode(task.getResult(), Base64.DEFAULT));
+
+        return bytes.continueWith(decodeExecutor, task -> {
+            if (!task.isSuccessful() || request.cancelled) {
+                return null;
+            }
+
+            Bitmap bitmap = decodeSampled(task.getResult(), targetSize);
+            if (bitmap != null) {
+                memoryCache.put(key, bitmap);
+            }
+            return bitmap;
+        });
+    }
+
+    private static Bitmap decodeSampled(byte[] data, int targetSize) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(data, 0, data.length, options);
+
+        // Largest power of two that keeps both sides at or above the target
+        int sampleSize = 1;
+        while (options.outWidth / (sampleSize * 2) >= targetSize
+                && options.outHeight / (sampleSize * 2) >= targetSize) {
+            sampleSize *= 2;
+        }
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSize;
+        options.inPreferredConfig = Bitmap.Config.RGB_565; // Avatars are JPEGs, no alpha to keep
+        return BitmapFactory.decodeByteArray(data, 0, data.length, options);
+    }
+
+    // Targets are rounded up to a power of two and decoded at that size, so each bucket's bitmap
+    // is large enough for every view that maps to it
+    private static int sizeBucket(int targetSize) {
+        return Integer.highestOneBit(Math.max(targetSize - 1, 1)) << 1;
+    }
+
+    private static String cacheKey(String userId, String avatarHash, String legacyBase64, int bucket) {
+        if (avatarHash != null && !avatarHash.isEmpty()) {
+            return userId + ":" + avatarHash + "@" + bucket;
+        }
+        if (legacyBase64 != null && !legacyBase64.isEmpty()) {
+            return userId + ":inline:" + legacyBase64.length() + ":" + legacyBase64.hashCode() + "@" + bucket;
+        }
+        return null;
+    }
+
+    private static int targetSize(ImageView view) {
+        int size = Math.max(view.getWidth(), view.getHeight());
+        if (size <= 0) {
+            ViewGroup.LayoutParams params = view.getLayoutParams();
+            if (params != null) {
+                size = Math.max(params.width, params.height);
+            }
+        }
+        return size > 0 ? size : DEFAULT_SIZE_PX;
+    }
+}
@@ -0,0 +1,59 @@
+package com.universe.android.util;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Turns the API's local "yyyy-MM-dd'T'HH:mm:ss" timestamps into the app's display strings
+ * ("MMMM d, yyyy" and "h:mm a", US English). Each thread keeps its own SimpleDateFormats, so the
+ * event parser can share them across a whole catalog instead of building three per event.
+ * Parsing is SimpleDateFormat's own, so out-of-range values roll over ("2025-02-30" is March 2)
+ * and anything after the seconds is ignored, exactly as before.
+ */
+public final class EventDateFormat {
+    private static final ThreadLocal<SimpleDateFormat> API_FORMAT = formatPerThread("yyyy-MM-dd'T'HH:mm:ss");
+    private static final ThreadLocal<SimpleDateFormat> DATE_FORMAT = formatPerThread("MMMM d, yyyy");
+    private static final ThreadLocal<SimpleDateFormat> TIME_FORMAT = formatPerThread("h:mm a");
+
+    private EventDateFormat() {
+    }
+
+    /**
+     * The API timestamp as a Date, or null if it isn't in the API format
+     */
+    public static Date parse(String apiDateTime) {
+        if (apiDateTime == null) return null;
+
+        try {
+            return API_FORMAT.get().parse(apiDateTime);
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * "March 15, 2025"
+     */
+    public static String formatDate(Date dateTime) {
+        return DATE_FORMAT.get().format(dateTime);
+    }
+
+    /**
+     * "7:30 PM"
+     */
+    public static String formatTime(Date dateTime) {
+        return TIME_FORMAT.get().format(dateTime);
+    }
+
+    // ThreadLocal.withInitial needs API 26, minSdk is 24
+    private static ThreadLocal<SimpleDateFormat> formatPerThread(String pattern) {
+        return new ThreadLocal<SimpleDateFormat>() {
+            @Override
+            protected SimpleDateFormat initialValue() {
+                return new SimpleDateFormat(pattern, Locale.US);
+            }
+        };
+    }
+}
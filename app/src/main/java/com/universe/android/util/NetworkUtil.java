@@ -7,6 +7,8 @@ import android.net.NetworkInfo;
 import android.os.Build;
 import android.util.Log;
 
+import com.universe.android.service.NetworkClient;
+
 public class NetworkUtil {
     private static final String TAG = "NetworkUtil";
 
@@ -60,9 +62,8 @@ public class NetworkUtil {
         }
 
         // Create a request to check API availability - use events endpoint instead of health
-        String url = "http://172.21.141.161/api/events";
+        String url = NetworkClient.API_BASE_URL + "/events?pageSize=1";
 
-        com.android.volley.RequestQueue queue = com.android.volley.toolbox.Volley.newRequestQueue(context);
         com.android.volley.Request<String> request = new com.android.volley.toolbox.StringRequest(
                 com.android.volley.Request.Method.GET,
                 url,
@@ -85,7 +86,10 @@ public class NetworkUtil {
                 com.android.volley.DefaultRetryPolicy.DEFAULT_BACKOFF_MULT
         ));
 
-        queue.add(request);
+        // A cached copy says nothing about whether the server is up
+        request.setShouldCache(false);
+
+        NetworkClient.getInstance(context).add(request);
     }
 
     public interface ApiAvailabilityCallback {
@@ -10,6 +10,7 @@ import android.util.Log;
 
 public class NfcUtil {
     private static final String TAG = "NfcUtil";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
 
     public static NfcAdapter initializeNfcAdapter(Activity activity) {
         NfcAdapter nfcAdapter = NfcAdapter.getDefaultAdapter(activity);
@@ -60,11 +61,14 @@ public class NfcUtil {
     }
 
     public static String bytesToHex(byte[] bytes) {
-        StringBuilder sb = new StringBuilder();
-        for (byte b : bytes) {
-            sb.append(String.format("%02x", b));
+        // Table lookup instead of String.format, which allocated a Formatter per byte
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int v = bytes[i] & 0xFF;
+            chars[i * 2] = HEX_DIGITS[v >>> 4];
+            chars[i * 2 + 1] = HEX_DIGITS[v & 0x0F];
         }
-        return sb.toString();
+        return new String(chars);
     }
 
     public static boolean isNfcAvailableAndEnabled(NfcAdapter adapter) {
@@ -4,16 +4,20 @@ import android.graphics.Bitmap;
 import android.util.Log;
 
 import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
 import com.google.zxing.MultiFormatWriter;
 import com.google.zxing.WriterException;
 import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
 import com.journeyapps.barcodescanner.BarcodeEncoder;
 import com.journeyapps.barcodescanner.ScanContract;
 import com.journeyapps.barcodescanner.ScanOptions;
 
-import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.fragment.app.Fragment;
@@ -22,11 +26,20 @@ public class QrCodeUtil {
 
     private static final String TAG = "QrCodeUtil";
 
+    // Medium error correction survives glare and smudged screens at the door; the compact payloads
+    // keep the symbol small enough to afford it. The quiet zone stays at the spec's 4 modules (ZXing's
+    // default), which scanners rely on to find the symbol against a busy background.
+    private static final ErrorCorrectionLevel ERROR_CORRECTION = ErrorCorrectionLevel.M;
+    private static final int QUIET_ZONE_MODULES = 4;
 
     public static Bitmap generateQrCode(String content, int width, int height) {
         try {
+            Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
+            hints.put(EncodeHintType.ERROR_CORRECTION, ERROR_CORRECTION);
+            hints.put(EncodeHintType.MARGIN, QUIET_ZONE_MODULES);
+
             MultiFormatWriter multiFormatWriter = new MultiFormatWriter();
-            BitMatrix bitMatrix = multiFormatWriter.encode(content, BarcodeFormat.QR_CODE, width, height);
+            BitMatrix bitMatrix = multiFormatWriter.encode(content, BarcodeFormat.QR_CODE, width, height, hints);
 
             BarcodeEncoder barcodeEncoder = new BarcodeEncoder();
             return barcodeEncoder.createBitmap(bitMatrix);
@@ -43,32 +56,17 @@ public class QrCodeUtil {
     public static Bitmap generateTicketQrCode(String ticketId, String verificationCode,
                                               String eventId, int numberOfTickets,
                                               int width, int height) {
-        try {
-            JSONObject jsonObject = new JSONObject();
-            jsonObject.put("id", ticketId);
-            jsonObject.put("code", verificationCode);
-            jsonObject.put("event", eventId);
-            jsonObject.put("tickets", numberOfTickets);
-
-            return generateQrCodeFromJson(jsonObject, width, height);
-        } catch (JSONException e) {
-            Log.e(TAG, "Error creating JSON for QR code: " + e.getMessage());
-            return null;
-        }
+        return generateQrCode(QrPayload.encodeTicket(ticketId, verificationCode, eventId, numberOfTickets),
+                width, height);
     }
 
     public static Bitmap generateFriendQrCode(String userId, String username, int width, int height) {
-        try {
-            JSONObject jsonObject = new JSONObject();
-            jsonObject.put("type", "friend");
-            jsonObject.put("userId", userId);
-            jsonObject.put("username", username);
-
-            return generateQrCodeFromJson(jsonObject, width, height);
-        } catch (JSONException e) {
-            Log.e(TAG, "Error creating JSON for friend QR code: " + e.getMessage());
-            return null;
-        }
+        return generateQrCode(QrPayload.encodeFriend(userId, username), width, height);
+    }
+
+    public static Bitmap generateSessionQrCode(String sessionId, String hostId, String hostUsername,
+                                               int width, int height) {
+        return generateQrCode(QrPayload.encodeSession(sessionId, hostId, hostUsername), width, height);
     }
 
     public static ActivityResultLauncher<ScanOptions> setupScanner(
@@ -111,13 +109,13 @@ public class QrCodeUtil {
         launcher.launch(options);
     }
 
+    // Reads both compact payloads and the JSON codes generated by earlier versions
     public static JSONObject parseQrCodeJson(String scanResult) {
-        try {
-            return new JSONObject(scanResult);
-        } catch (JSONException e) {
-            Log.e(TAG, "Error parsing QR code content: " + e.getMessage());
-            return null;
+        JSONObject data = QrPayload.decode(scanResult);
+        if (data == null) {
+            Log.e(TAG, "Unrecognised QR code content");
         }
+        return data;
     }
 
     public interface QrScanCallback {
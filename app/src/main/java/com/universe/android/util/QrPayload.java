@@ -0,0 +1,220 @@
+package com.universe.android.util;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact QR payloads for tickets, friends and study sessions. Fields are packed into a small
+ * binary record (format version, type, length-prefixed values) and base45-encoded, so the QR
+ * symbol uses alphanumeric mode at about 5.5 bits per character instead of byte-mode JSON with
+ * key names. Decoding gives back a JSONObject in the shape the old JSON codes had, so scanners
+ * handle both generations the same way.
+ */
+public final class QrPayload {
+    public static final String TYPE_TICKET = "ticket";
+    public static final String TYPE_FRIEND = "friend";
+    public static final String TYPE_SESSION = "session";
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int KIND_TICKET = 1;
+    private static final int KIND_FRIEND = 2;
+    private static final int KIND_SESSION = 3;
+
+    // RFC 9285 alphabet, which is exactly the QR alphanumeric character set
+    private static final String BASE45_ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ $%*+-./:";
+
+    private QrPayload() {
+    }
+
+    public static String encodeTicket(String ticketId, String verificationCode, String eventId, int numberOfTickets) {
+        Writer writer = new Writer(KIND_TICKET);
+        writer.writeString(ticketId);
+        writer.writeString(verificationCode);
+        writer.writeString(eventId);
+        writer.writeVarint(numberOfTickets);
+        return writer.toBase45();
+    }
+
+    public static String encodeFriend(String userId, String username) {
+        Writer writer = new Writer(KIND_FRIEND);
+        writer.writeString(userId);
+        writer.writeString(username);
+        return writer.toBase45();
+    }
+
+    public static String encodeSession(String sessionId, String hostId, String hostUsername) {
+        Writer writer = new Writer(KIND_SESSION);
+        writer.writeString(sessionId);
+        writer.writeString(hostId);
+        writer.writeString(hostUsername);
+        return writer.toBase45();
+    }
+
+    /**
+     * The scanned content as a JSONObject with the old JSON keys ("type", "userId", ...), whether it
+     * is a compact payload or a legacy JSON code. Null if it is neither.
+     */
+    public static JSONObject decode(String content) {
+        if (content == null) return null;
+
+        try {
+            if (content.startsWith("{")) {
+                return new JSONObject(content);
+            }
+            return decodeCompact(content);
+        } catch (JSONException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static JSONObject decodeCompact(String content) throws JSONException {
+        Reader reader = new Reader(base45Decode(content));
+        if (reader.readVarint() != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported QR payload version");
+        }
+
+        JSONObject data = new JSONObject();
+        switch (reader.readVarint()) {
+            case KIND_TICKET:
+                data.put("type", TYPE_TICKET);
+                data.put("id", reader.readString());
+                data.put("code", reader.readString());
+                data.put("event", reader.readString());
+                data.put("tickets", reader.readVarint());
+                break;
+            case KIND_FRIEND:
+                data.put("type", TYPE_FRIEND);
+                data.put("userId", reader.readString());
+                data.put("username", reader.readString());
+                break;
+            case KIND_SESSION:
+                data.put("type", TYPE_SESSION);
+                data.put("sessionId", reader.readString());
+                data.put("hostId", reader.readString());
+                data.put("hostUsername", reader.readString());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown QR payload type");
+        }
+
+        if (reader.hasRemaining()) {
+            throw new IllegalArgumentException("Trailing bytes in QR payload");
+        }
+        return data;
+    }
+
+    // Two bytes become three characters, a trailing single byte becomes two
+    static String base45Encode(byte[] bytes) {
+        StringBuilder encoded = new StringBuilder((bytes.length + 1) / 2 * 3);
+
+        for (int i = 0; i < bytes.length; i += 2) {
+            if (i + 1 < bytes.length) {
+                int value = ((bytes[i] & 0xFF) << 8) | (bytes[i + 1] & 0xFF);
+                encoded.append(BASE45_ALPHABET.charAt(value % 45));
+                encoded.append(BASE45_ALPHABET.charAt(value / 45 % 45));
+                encoded.append(BASE45_ALPHABET.charAt(value / 2025));
+            } else {
+                int value = bytes[i] & 0xFF;
+                encoded.append(BASE45_ALPHABET.charAt(value % 45));
+                encoded.append(BASE45_ALPHABET.charAt(value / 45));
+            }
+        }
+        return encoded.toString();
+    }
+
+    static byte[] base45Decode(String encoded) {
+        if (encoded.length() % 3 == 1) {
+            throw new IllegalArgumentException("Invalid base45 length");
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(encoded.length() / 3 * 2 + 1);
+        for (int i = 0; i < encoded.length(); i += 3) {
+            int value = base45Digit(encoded.charAt(i)) + base45Digit(encoded.charAt(i + 1)) * 45;
+
+            if (i + 2 < encoded.length()) {
+                value += base45Digit(encoded.charAt(i + 2)) * 2025;
+                if (value > 0xFFFF) throw new IllegalArgumentException("Invalid base45 chunk");
+                bytes.write(value >> 8);
+                bytes.write(value & 0xFF);
+            } else {
+                if (value > 0xFF) throw new IllegalArgumentException("Invalid base45 chunk");
+                bytes.write(value);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static int base45Digit(char c) {
+        int digit = BASE45_ALPHABET.indexOf(c);
+        if (digit < 0) throw new IllegalArgumentException("Invalid base45 character");
+        return digit;
+    }
+
+    private static class Writer {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        Writer(int kind) {
+            writeVarint(FORMAT_VERSION);
+            writeVarint(kind);
+        }
+
+        void writeVarint(int value) {
+            if (value < 0) throw new IllegalArgumentException("Negative value in QR payload");
+
+            while (value >= 0x80) {
+                bytes.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes.write(value);
+        }
+
+        void writeString(String value) {
+            byte[] utf8 = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+            writeVarint(utf8.length);
+            bytes.write(utf8, 0, utf8.length);
+        }
+
+        String toBase45() {
+            return base45Encode(bytes.toByteArray());
+        }
+    }
+
+    private static class Reader {
+        private final byte[] bytes;
+        private int position = 0;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int readVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                if (position >= bytes.length) throw new IllegalArgumentException("Truncated QR payload");
+
+                int b = bytes[position++] & 0xFF;
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IllegalArgumentException("Malformed varint in QR payload");
+        }
+
+        String readString() {
+            int length = readVarint();
+            if (length < 0 || length > bytes.length - position) {
+                throw new IllegalArgumentException("Truncated QR payload");
+            }
+
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        boolean hasRemaining() {
+            return position < bytes.length;
+        }
+    }
+}
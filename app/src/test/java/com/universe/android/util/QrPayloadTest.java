@@ -0,0 +1,90 @@
+package com.universe.android.util;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local tests for the compact QR payload format and its compatibility with the legacy JSON codes.
+ */
+public class QrPayloadTest {
+    @Test
+    public void base45_matchesRfcVectors() {
+        assertEquals("BB8", QrPayload.base45Encode("AB".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals("%69 VD92EX0", QrPayload.base45Encode("Hello!!".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals("UJCLQE7W581", QrPayload.base45Encode("base-45".getBytes(StandardCharsets.US_ASCII)));
+        assertArrayEquals("ietf!".getBytes(StandardCharsets.US_ASCII), QrPayload.base45Decode("QED8WEX0"));
+    }
+
+    @Test
+    public void base45_roundTripsEveryByteValueAndLength() {
+        byte[] bytes = new byte[256];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (255 - i);
+        }
+
+        for (int length = 0; length <= bytes.length; length++) {
+            byte[] prefix = new byte[length];
+            System.arraycopy(bytes, 0, prefix, 0, length);
+            assertArrayEquals(prefix, QrPayload.base45Decode(QrPayload.base45Encode(prefix)));
+        }
+    }
+
+    @Test
+    public void decode_roundTripsCompactPayloads() throws Exception {
+        JSONObject ticket = QrPayload.decode(QrPayload.encodeTicket("ticket-1", "A1B2C3", "event-9", 3));
+        assertEquals(QrPayload.TYPE_TICKET, ticket.getString("type"));
+        assertEquals("ticket-1", ticket.getString("id"));
+        assertEquals("A1B2C3", ticket.getString("code"));
+        assertEquals("event-9", ticket.getString("event"));
+        assertEquals(3, ticket.getInt("tickets"));
+
+        JSONObject friend = QrPayload.decode(QrPayload.encodeFriend("uid-42", "Zoë"));
+        assertEquals(QrPayload.TYPE_FRIEND, friend.getString("type"));
+        assertEquals("uid-42", friend.getString("userId"));
+        assertEquals("Zoë", friend.getString("username"));
+
+        JSONObject session = QrPayload.decode(QrPayload.encodeSession("session-7", "host-1", "host"));
+        assertEquals(QrPayload.TYPE_SESSION, session.getString("type"));
+        assertEquals("session-7", session.getString("sessionId"));
+        assertEquals("host-1", session.getString("hostId"));
+        assertEquals("host", session.getString("hostUsername"));
+    }
+
+    @Test
+    public void decode_readsLegacyJson() throws Exception {
+        JSONObject friend = QrPayload.decode("{\"type\":\"friend\",\"userId\":\"uid-42\",\"username\":\"zoe\"}");
+        assertEquals(QrPayload.TYPE_FRIEND, friend.getString("type"));
+        assertEquals("uid-42", friend.getString("userId"));
+        assertEquals("zoe", friend.getString("username"));
+    }
+
+    @Test
+    public void decode_rejectsTruncatedPayloads() {
+        String encoded = QrPayload.encodeSession("session-7", "host-1", "host");
+
+        // Whole base45 chunks only, so every cut fails on the record rather than the encoding
+        for (int length = 0; length < encoded.length(); length += 3) {
+            assertNull(QrPayload.decode(encoded.substring(0, length)));
+        }
+        assertNull(QrPayload.decode(encoded.substring(0, encoded.length() - 1)));
+    }
+
+    @Test
+    public void decode_rejectsGarbage() {
+        assertNull(QrPayload.decode(null));
+        assertNull(QrPayload.decode("https://example.com/ticket")); // Lower case is outside the alphabet
+        assertNull(QrPayload.decode("ZZZZ"));
+        assertNull(QrPayload.decode("{\"type\":"));
+        assertNull(QrPayload.decode(QrPayload.base45Encode(new byte[] {2, 1}))); // Unknown format version
+        assertNull(QrPayload.decode(QrPayload.base45Encode(new byte[] {1, 9}))); // Unknown type
+
+        byte[] friend = QrPayload.base45Decode(QrPayload.encodeFriend("uid-42", "zoe"));
+        byte[] padded = new byte[friend.length + 1];
+        System.arraycopy(friend, 0, padded, 0, friend.length);
+        assertNull(QrPayload.decode(QrPayload.base45Encode(padded))); // Trailing byte
+    }
+}
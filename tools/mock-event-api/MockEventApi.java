@@ -0,0 +1,264 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stand-in for the event API, for exercising paging, caching and booking against a large catalog.
+ *
+ *     java tools/mock-event-api/MockEventApi.java [eventCount] [port]
+ *
+ * Defaults to 10,000 events on port 8080. Endpoints:
+ *   GET  /api/events                             full catalog as a JSON array (unpaged clients)
+ *   GET  /api/events?pageSize=N[&pageToken=T]    {"events": [...], "nextPageToken": "..."}
+ *   GET  /api/events?ids=a,b,c                   the known events among those ids, as an array
+ *   GET  /api/events/{id}                        one event
+ *   POST /api/events/{id}/book                   {"bookingId": "...", "verificationCode": "..."}
+ * GET responses carry an ETag and answer a matching If-None-Match with 304.
+ */
+public class MockEventApi {
+    private static final int DEFAULT_EVENT_COUNT = 10_000;
+    private static final int DEFAULT_PORT = 8080;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final List<Map<String, Object>> events = new ArrayList<>();
+    private final Map<String, Integer> indexById = new HashMap<>();
+
+    public static void main(String[] args) throws IOException {
+        int eventCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_EVENT_COUNT;
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+
+        MockEventApi api = new MockEventApi(eventCount);
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/api/events", api::handle);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.start();
+        System.out.println("Serving " + eventCount + " events on http://0.0.0.0:" + port + "/api/events");
+    }
+
+    private MockEventApi(int eventCount) {
+        // Already in date order, which is the order pages are served in
+        for (int i = 0; i < eventCount; i++) {
+            Map<String, Object> venue = new HashMap<>();
+            venue.put("name", "Hall " + (i % 25));
+            venue.put("address", (i % 300) + " University Boulevard, Nottingham NG7 2RD");
+            venue.put("latitude", 52.9387 + (i % 100) * 0.0001);
+            venue.put("longitude", -1.1954 - (i % 100) * 0.0001);
+
+            Map<String, Object> event = new HashMap<>();
+            String id = String.format(Locale.US, "evt-%05d", i);
+            event.put("eventId", id);
+            event.put("eventName", "Campus Event #" + (i + 1));
+            event.put("description", "Stand-in event " + (i + 1) + " served by the local mock API.");
+            event.put("eventDateTime", String.format(Locale.US, "%d-%02d-%02dT%02d:%02d:00",
+                    2025 + i / 4032, (i / 336) % 12 + 1, (i / 12) % 28 + 1, 9 + i % 12, (i % 4) * 15));
+            event.put("venue", venue);
+            event.put("ticketPrice", 100 + (i * 37) % 900);
+            event.put("availableTickets", 5 + i % 200);
+            event.put("organizer", "Society " + (i % 40));
+
+            indexById.put(id, events.size());
+            events.add(event);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String[] segments = path.substring("/api/events".length()).split("/");
+            String method = exchange.getRequestMethod();
+
+            if (segments.length <= 1 && method.equals("GET")) {
+                listEvents(exchange);
+            } else if (segments.length == 2 && method.equals("GET")) {
+                getEvent(exchange, segments[1]);
+            } else if (segments.length == 3 && segments[2].equals("book") && method.equals("POST")) {
+                bookEvent(exchange, segments[1]);
+            } else {
+                send(exchange, 404, "{\"error\":\"Not found\"}", false);
+            }
+        } catch (RuntimeException e) {
+            send(exchange, 400, "{\"error\":" + quote(String.valueOf(e.getMessage())) + "}", false);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void listEvents(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+        if (query.containsKey("ids")) {
+            List<Map<String, Object>> found = new ArrayList<>();
+            for (String id : query.get("ids").split(",")) {
+                Integer index = indexById.get(id);
+                if (index != null) found.add(events.get(index));
+            }
+            send(exchange, 200, toJson(found), true);
+            return;
+        }
+
+        if (!query.containsKey("pageSize") && !query.containsKey("pageToken")) {
+            send(exchange, 200, toJson(events), true);
+            return;
+        }
+
+        int pageSize = Math.max(1, Math.min(MAX_PAGE_SIZE,
+                Integer.parseInt(query.getOrDefault("pageSize", "20"))));
+
+        // The token is the opaque-to-clients id of the last event on the previous page
+        int start = 0;
+        String pageToken = query.get("pageToken");
+        if (pageToken != null && !pageToken.isEmpty()) {
+            String afterId = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+            Integer after = indexById.get(afterId);
+            if (after == null) {
+                send(exchange, 400, "{\"error\":\"Unknown pageToken\"}", false);
+                return;
+            }
+            start = after + 1;
+        }
+
+        int end = Math.min(events.size(), start + pageSize);
+        List<Map<String, Object>> page = events.subList(start, end);
+
+        String nextPageToken = end < events.size()
+                ? Base64.getUrlEncoder().withoutPadding().encodeToString(
+                        ((String) events.get(end - 1).get("eventId")).getBytes(StandardCharsets.UTF_8))
+                : null;
+
+        send(exchange, 200, "{\"events\":" + toJson(page) + ",\"nextPageToken\":"
+                + (nextPageToken != null ? quote(nextPageToken) : "null") + "}", true);
+    }
+
+    private void getEvent(HttpExchange exchange, String id) throws IOException {
+        Integer index = indexById.get(id);
+        if (index == null) {
+            send(exchange, 404, "{\"error\":\"Event not found\"}", false);
+            return;
+        }
+        send(exchange, 200, toJson(events.get(index)), true);
+    }
+
+    private synchronized void bookEvent(HttpExchange exchange, String id) throws IOException {
+        Integer index = indexById.get(id);
+        if (index == null) {
+            send(exchange, 404, "{\"error\":\"Event not found\"}", false);
+            return;
+        }
+
+        Map<String, Object> event = events.get(index);
+        int available = (Integer) event.get("availableTickets");
+        if (available <= 0) {
+            send(exchange, 409, "{\"error\":\"Sold out\"}", false);
+            return;
+        }
+        event.put("availableTickets", available - 1);
+
+        String bookingId = "BOOKING-" + UUID.randomUUID().toString().substring(0, 8);
+        String verificationCode = String.format(Locale.US, "%06d", (int) (Math.random() * 1_000_000));
+        send(exchange, 200, "{\"bookingId\":" + quote(bookingId)
+                + ",\"verificationCode\":" + quote(verificationCode) + "}", false);
+    }
+
+    private static void send(HttpExchange exchange, int status, String body, boolean withEtag) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+
+        if (withEtag) {
+            String etag = "\"" + sha256(bytes) + "\"";
+            exchange.getResponseHeaders().set("ETag", etag);
+
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+        }
+
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return query;
+
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq >= 0 ? pair.substring(0, eq) : pair, StandardCharsets.UTF_8);
+            String value = eq >= 0 ? URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8) : "";
+            query.put(key, value);
+        }
+        return query;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String toJson(Object value) {
+        if (value == null) return "null";
+        if (value instanceof String) return quote((String) value);
+        if (value instanceof Number || value instanceof Boolean) return value.toString();
+
+        StringBuilder json = new StringBuilder();
+        if (value instanceof Map) {
+            json.append('{');
+            boolean first = true;
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+                if (!first) json.append(',');
+                json.append(quote(entry.getKey())).append(':').append(toJson(entry.getValue()));
+                first = false;
+            }
+            return json.append('}').toString();
+        }
+
+        json.append('[');
+        boolean first = true;
+        for (Object item : (List<Object>) value) {
+            if (!first) json.append(',');
+            json.append(toJson(item));
+            first = false;
+        }
+        return json.append(']').toString();
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}